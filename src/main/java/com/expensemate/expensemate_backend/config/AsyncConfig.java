@@ -0,0 +1,141 @@
+package com.expensemate.expensemate_backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    // With the "virtual" profile the I/O-bound executors below run their tasks on virtual threads.
+    // Pool sizes still cap concurrency; only the carrier changes.
+    private final boolean virtualThreads;
+
+    public AsyncConfig(@Value("${spring.threads.virtual.enabled}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    // Executor for post-commit expense side effects (notifications, budget alerts).
+    // Bounded queue; when full the event is dropped and counted (expense.events.rejected) rather than
+    // run on the publishing thread, so a burst never adds side-effect work to the HTTP request.
+    // On shutdown queued tasks are drained before the context closes.
+    @Bean(name = "expenseEventExecutor")
+    public ThreadPoolTaskExecutor expenseEventExecutor(MeterRegistry meterRegistry,
+                                                       @Value("${app.async.expense-events.pool-size}") int poolSize,
+                                                       @Value("${app.async.expense-events.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("expense-events-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        Counter rejected = Counter.builder("expense.events.rejected")
+                .description("Expense side effects dropped because the event queue was full")
+                .register(meterRegistry);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            System.out.println("⚠️ expenseEventExecutor: queue full, dropped expense event");
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        // executor.queued / executor.active / executor.completed tagged name=expense.events
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "expense.events", Tags.empty())
+                .bindTo(meterRegistry);
+        return executor;
+    }
+
+    // Executor for mail outbox drains (see MailOutboxWorker); the worker itself caps concurrent
+    // drains, so a rejected wake-up is harmless and the periodic poll catches up.
+    @Bean(name = "mailExecutor")
+    public ThreadPoolTaskExecutor mailExecutor(MeterRegistry meterRegistry,
+                                               @Value("${app.mail.outbox.workers}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("mail-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "mail", Tags.empty())
+                .bindTo(meterRegistry);
+        return executor;
+    }
+
+    // Executor for global notification fan-out jobs (see NotificationFanoutService).
+    // One job at a time so broadcasts do not compete for the notifications table; excess jobs are rejected.
+    @Bean(name = "notificationFanoutExecutor")
+    public ThreadPoolTaskExecutor notificationFanoutExecutor(MeterRegistry meterRegistry,
+                                                             @Value("${app.notifications.fanout.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("notification-fanout-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "notification.fanout", Tags.empty())
+                .bindTo(meterRegistry);
+        return executor;
+    }
+
+    // Executor that writes buffered SSE events to clients (see NotificationStreamService).
+    // Only subscribers with pending events use a thread; a rejected drain is retried by the service's sweep.
+    @Bean(name = "notificationStreamExecutor")
+    public ThreadPoolTaskExecutor notificationStreamExecutor(MeterRegistry meterRegistry,
+                                                             @Value("${app.notifications.stream.senders}") int senders,
+                                                             @Value("${app.notifications.stream.sender-queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("notification-stream-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setCorePoolSize(senders);
+        executor.setMaxPoolSize(senders);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "notification.stream", Tags.empty())
+                .bindTo(meterRegistry);
+        return executor;
+    }
+
+    // Executor for BCrypt work (see BoundedPasswordEncoder).
+    // Small queue and AbortPolicy: when saturated, callers get a fast 503 rather than waiting.
+    // Hashing is CPU-bound, so this pool stays on platform threads even in virtual-thread mode.
+    @Bean(name = "passwordHashingExecutor")
+    public ThreadPoolTaskExecutor passwordHashingExecutor(MeterRegistry meterRegistry,
+                                                          @Value("${app.security.bcrypt.pool-size}") int poolSize,
+                                                          @Value("${app.security.bcrypt.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "password.hash", Tags.empty())
+                .bindTo(meterRegistry);
+        return executor;
+    }
+}
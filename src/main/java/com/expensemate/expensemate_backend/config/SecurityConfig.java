@@ -1,17 +1,24 @@
 package com.expensemate.expensemate_backend.config;
 
+import com.expensemate.expensemate_backend.repository.UserRepository;
+import com.expensemate.expensemate_backend.security.BoundedPasswordEncoder;
 import com.expensemate.expensemate_backend.security.CustomAuthenticationEntryPoint;
+import com.expensemate.expensemate_backend.security.EmailPasswordAuthenticationProvider;
 import com.expensemate.expensemate_backend.security.JwtAuthenticationFilter;
-import com.expensemate.expensemate_backend.service.UserDetailsServiceImpl;
+import com.expensemate.expensemate_backend.security.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -22,10 +29,10 @@ import org.springframework.web.cors.CorsConfigurationSource;
 public class SecurityConfig {
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @Autowired
-    private JwtAuthenticationFilter jwtAuthenticationFilter;
+    private RateLimitFilter rateLimitFilter;
 
     @Autowired
     private CustomAuthenticationEntryPoint unauthorizedHandler;
@@ -33,19 +40,27 @@ public class SecurityConfig {
     @Autowired
     private CorsConfigurationSource corsConfigurationSource;
 
-    // Password encoder bean
+    // Password encoder bean: BCrypt on a bounded pool, cost from app.security.bcrypt.strength
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.strength}") int strength,
+                                           @Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor passwordHashingExecutor,
+                                           MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(strength, passwordHashingExecutor, meterRegistry);
+    }
+
+    // Login provider: one users query per login, password checked against that row
+    @Bean
+    public EmailPasswordAuthenticationProvider emailPasswordAuthenticationProvider(UserRepository userRepository,
+                                                                                   PasswordEncoder passwordEncoder) {
+        return new EmailPasswordAuthenticationProvider(userRepository, passwordEncoder);
     }
 
     // AuthenticationManager bean
     @Bean
-    public AuthenticationManager authenticationManager(HttpSecurity http) throws Exception {
+    public AuthenticationManager authenticationManager(HttpSecurity http,
+                                                       EmailPasswordAuthenticationProvider emailPasswordAuthenticationProvider) throws Exception {
         return http.getSharedObject(AuthenticationManagerBuilder.class)
-                .userDetailsService(userDetailsService)
-                .passwordEncoder(passwordEncoder())
-                .and()
+                .authenticationProvider(emailPasswordAuthenticationProvider)
                 .build();
     }
 
@@ -58,16 +73,19 @@ public class SecurityConfig {
             .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Async dispatches (SSE writes, completion) and error pages were authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+
                 // Public endpoints - be more explicit
                 .requestMatchers("/api/auth/register").permitAll()
                 .requestMatchers("/api/auth/login").permitAll()
                 .requestMatchers("/api/auth/forgot-password").permitAll()
                 .requestMatchers("/api/auth/reset-password").permitAll()
-                .requestMatchers("/api/auth/change-password").permitAll()
                 .requestMatchers("/api/password/**").permitAll()
                 .requestMatchers("/api/reports/export/**").permitAll()
 
                 // User endpoints
+                .requestMatchers("/api/auth/profile", "/api/auth/change-password").hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
                 .requestMatchers("/api/user/**").hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
                 .requestMatchers("/api/expenses/**").hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
                 .requestMatchers("/api/budget/**").hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
@@ -84,6 +102,9 @@ public class SecurityConfig {
         // Add JWT filter before UsernamePasswordAuthenticationFilter
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
+        // Throttle login / OTP endpoints before any token or user work
+        http.addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
+
         return http.build();
     }
 }
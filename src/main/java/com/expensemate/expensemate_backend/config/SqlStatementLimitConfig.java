@@ -0,0 +1,31 @@
+package com.expensemate.expensemate_backend.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Per-request SQL statement budget, switched on with app.sql.statement-limit > 0 (test profile).
+// Runs ahead of the security chain so the JWT user lookup is counted too.
+@Configuration
+@ConditionalOnExpression("${app.sql.statement-limit:0} > 0")
+public class SqlStatementLimitConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementLimitFilter> sqlStatementLimitFilter(
+            @Value("${app.sql.statement-limit}") int limit) {
+        FilterRegistrationBean<SqlStatementLimitFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementLimitFilter(limit));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,37 @@
+package com.expensemate.expensemate_backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Fails a request that issued more SQL statements than the configured limit.
+// Meant for tests: the exception surfaces in MockMvc, so an N+1 regression breaks the build.
+public class SqlStatementLimitFilter extends OncePerRequestFilter {
+
+    private final int limit;
+
+    public SqlStatementLimitFilter(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementCounter.reset();
+        try {
+            filterChain.doFilter(request, response);
+            int statements = SqlStatementCounter.current();
+            if (statements > limit) {
+                throw new IllegalStateException(String.format(
+                        "%s %s issued %d SQL statements (limit %d)",
+                        request.getMethod(), request.getRequestURI(), statements, limit));
+            }
+        } finally {
+            SqlStatementCounter.clear();
+        }
+    }
+}
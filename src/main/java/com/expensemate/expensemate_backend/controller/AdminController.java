@@ -5,6 +5,7 @@ import com.expensemate.expensemate_backend.dto.*;
 import com.expensemate.expensemate_backend.model.*;
 import com.expensemate.expensemate_backend.repository.ExpenseRepository;
 import com.expensemate.expensemate_backend.service.AdminService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.ArrayList;
@@ -60,12 +61,12 @@ public class AdminController {
 
     // --- Manage Expenses ---
     @GetMapping("/expenses")
-    public ResponseEntity<List<Expense>> getAllExpenses() {
+    public ResponseEntity<List<ExpenseSummaryDto>> getAllExpenses() {
         return ResponseEntity.ok(adminService.getAllExpenses());
     }
 
     @GetMapping("/expenses/flagged")
-    public ResponseEntity<List<Expense>> getFlaggedExpenses() {
+    public ResponseEntity<List<ExpenseSummaryDto>> getFlaggedExpenses() {
         return ResponseEntity.ok(adminService.getFlaggedExpenses());
     }
 
@@ -113,8 +114,8 @@ public class AdminController {
     public ResponseEntity<Map<String, Object>> getDebugStats() {
         Map<String, Object> stats = new HashMap<>();
         stats.put("userCount", adminService.getAllUsers().size());
-        stats.put("expenseCount", adminService.getAllExpenses().size());
-        stats.put("flaggedExpenses", adminService.getFlaggedExpenses().size());
+        stats.put("expenseCount", expenseRepository.count());
+        stats.put("flaggedExpenses", expenseRepository.countByFlaggedTrue());
         stats.put("timestamp", java.time.LocalDateTime.now().toString());
         System.out.println("🐛 Debug stats: " + stats);
         return ResponseEntity.ok(stats);
@@ -126,13 +127,13 @@ public class AdminController {
         Map<String, Object> debug = new HashMap<>();
         
         // Get all expenses
-        List<Expense> allExpenses = adminService.getAllExpenses();
+        List<ExpenseSummaryDto> allExpenses = adminService.getAllExpenses();
         debug.put("totalExpenses", allExpenses.size());
         
         // Get first few expenses for debugging
         List<Map<String, Object>> sampleExpenses = new ArrayList<>();
         for (int i = 0; i < Math.min(5, allExpenses.size()); i++) {
-            Expense expense = allExpenses.get(i);
+            ExpenseSummaryDto expense = allExpenses.get(i);
             Map<String, Object> expenseData = new HashMap<>();
             expenseData.put("id", expense.getId());
             expenseData.put("amount", expense.getAmount());
@@ -157,6 +158,8 @@ public class AdminController {
     }
 
     // --- Global Notifications ---
+    // Stored once as a broadcast. With "delivery": "fanout" a row is written per user instead,
+    // as a background job; poll /notifications/jobs/{jobId} for its progress.
     @PostMapping("/notifications")
     public ResponseEntity<Map<String, String>> sendGlobalNotification(@RequestBody Map<String, String> body) {
         System.out.println("🔔 AdminController: Received global notification request");
@@ -171,11 +174,43 @@ public class AdminController {
         }
         
         System.out.println("🔔 AdminController: Sending notification with message: " + message);
-        adminService.sendGlobalNotification(message);
-        
-        Map<String, String> successResponse = new HashMap<>();
-        successResponse.put("message", "Global notification sent successfully.");
-        System.out.println("✅ AdminController: Notification sent successfully");
-        return ResponseEntity.ok(successResponse);
+        if (!"fanout".equals(body.get("delivery"))) {
+            BroadcastNotification broadcast = adminService.sendGlobalNotification(message);
+            Map<String, String> successResponse = new HashMap<>();
+            successResponse.put("message", "Global notification sent successfully.");
+            successResponse.put("broadcastId", String.valueOf(broadcast.getId()));
+            System.out.println("✅ AdminController: Broadcast " + broadcast.getId() + " sent");
+            return ResponseEntity.ok(successResponse);
+        }
+
+        NotificationFanoutJobDto job;
+        try {
+            job = adminService.fanOutGlobalNotification(message);
+        } catch (IllegalStateException e) {
+            Map<String, String> busyResponse = new HashMap<>();
+            busyResponse.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(busyResponse);
+        }
+
+        Map<String, String> acceptedResponse = new HashMap<>();
+        acceptedResponse.put("message", "Global notification queued.");
+        acceptedResponse.put("jobId", job.getJobId());
+        System.out.println("✅ AdminController: Notification job " + job.getJobId() + " queued");
+        return ResponseEntity.accepted().body(acceptedResponse);
+    }
+
+    @GetMapping("/notifications/jobs/{jobId}")
+    public ResponseEntity<NotificationFanoutJobDto> getGlobalNotificationJob(@PathVariable String jobId) {
+        return adminService.getGlobalNotificationJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Stops the job after its current chunk; notifications already written are kept
+    @DeleteMapping("/notifications/jobs/{jobId}")
+    public ResponseEntity<NotificationFanoutJobDto> cancelGlobalNotificationJob(@PathVariable String jobId) {
+        return adminService.cancelGlobalNotificationJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 }
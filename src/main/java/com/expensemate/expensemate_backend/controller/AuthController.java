@@ -7,11 +7,20 @@ import com.expensemate.expensemate_backend.dto.SignupRequest;
 import com.expensemate.expensemate_backend.model.Role;
 import com.expensemate.expensemate_backend.model.User;
 import com.expensemate.expensemate_backend.repository.UserRepository;
+import com.expensemate.expensemate_backend.security.JwtPrincipal;
 import com.expensemate.expensemate_backend.security.JwtUtil;
+import com.expensemate.expensemate_backend.security.PasswordHashingBusyException;
+import com.expensemate.expensemate_backend.service.UserDetailsImpl;
+import com.expensemate.expensemate_backend.service.UserDetailsServiceImpl;
 import com.expensemate.expensemate_backend.service.UserService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
@@ -27,17 +36,20 @@ public class AuthController {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final UserService userService;
+    private final UserDetailsServiceImpl userDetailsService;
 
     public AuthController(AuthenticationManager authManager,
                           UserRepository userRepository,
                           PasswordEncoder passwordEncoder,
                           JwtUtil jwtUtil,
-                          UserService userService) {
+                          UserService userService,
+                          UserDetailsServiceImpl userDetailsService) {
         this.authManager = authManager;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
         this.userService = userService;
+        this.userDetailsService = userDetailsService;
     }
 
     // -------------------- REGISTER --------------------
@@ -71,20 +83,16 @@ public class AuthController {
     public ResponseEntity<?> login(@RequestBody LoginRequest request) {
         String email = request.getEmail().toLowerCase();
 
-        // Check if user exists first
-        if (!userRepository.existsByEmail(email)) {
-            return ResponseEntity.status(401).body("Invalid credentials. Please check your email and password.");
-        }
-
+        // The provider loads the user once and returns it with the authentication
+        Authentication authentication;
         try {
-            authManager.authenticate(
+            authentication = authManager.authenticate(
                     new UsernamePasswordAuthenticationToken(email, request.getPassword()));
-        } catch (Exception e) {
+        } catch (AuthenticationException e) {
             return ResponseEntity.status(401).body("Invalid credentials. Please check your email and password.");
         }
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = ((UserDetailsImpl) authentication.getPrincipal()).getUser();
 
         String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole().name(), user.getUsername());
 
@@ -132,17 +140,9 @@ public class AuthController {
 
     // -------------------- GET USER PROFILE ----------------------
     @GetMapping("/profile")
-    public ResponseEntity<?> getUserProfile(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getUserProfile(@AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            // Extract user ID from JWT token
-            String token = authHeader.substring(7); // Remove "Bearer " prefix
-            Long userId = jwtUtil.extractUserId(token);
-            
-            if (userId == null) {
-                return ResponseEntity.status(401).body("Invalid token");
-            }
-            
-            User user = userRepository.findById(userId)
+            User user = userRepository.findById(principal.userId())
                     .orElseThrow(() -> new RuntimeException("User not found"));
             
             // Return user profile data
@@ -160,17 +160,12 @@ public class AuthController {
 
     @PutMapping("/profile")
     public ResponseEntity<?> updateProfile(@RequestBody Map<String, String> updateData, 
-                                          @RequestHeader("Authorization") String authHeader) {
+                                          @AuthenticationPrincipal JwtPrincipal principal) {
         try {
             System.out.println("Profile update request received");
             System.out.println("Update data: " + updateData);
-            System.out.println("Auth header: " + authHeader);
-            
-            String token = authHeader.substring(7); // Remove "Bearer " prefix
-            String email = jwtUtil.extractUsername(token);
-            System.out.println("Extracted email: " + email);
-            
-            User user = userRepository.findByEmail(email)
+
+            User user = userRepository.findById(principal.userId())
                     .orElseThrow(() -> new RuntimeException("User not found"));
             System.out.println("User found: " + user.getEmail() + ", current username: " + user.getUsername());
             
@@ -191,6 +186,7 @@ public class AuthController {
             }
             
             userRepository.save(user);
+            userDetailsService.evict(user.getEmail());
             System.out.println("Profile updated successfully");
             
             return ResponseEntity.ok(Map.of("message", "Profile updated successfully"));
@@ -204,16 +200,11 @@ public class AuthController {
     // -------------------- CHANGE PASSWORD --------------------
     @PutMapping("/change-password")
     public ResponseEntity<?> changePassword(@RequestBody ChangePasswordRequest request,
-                                           @RequestHeader("Authorization") String authHeader) {
+                                           @AuthenticationPrincipal JwtPrincipal principal) {
         try {
             System.out.println("Change password request received");
-            System.out.println("Auth header: " + authHeader);
-            
-            String token = authHeader.substring(7); // Remove "Bearer " prefix
-            String email = jwtUtil.extractUsername(token);
-            System.out.println("Extracted email: " + email);
-            
-            User user = userRepository.findByEmail(email)
+
+            User user = userRepository.findById(principal.userId())
                     .orElseThrow(() -> new RuntimeException("User not found"));
             System.out.println("User found: " + user.getEmail());
             
@@ -236,14 +227,25 @@ public class AuthController {
             }
             
             // Update password
-            userService.updatePassword(email, request.getNewPassword());
+            userService.updatePassword(user.getEmail(), request.getNewPassword());
             System.out.println("Password updated successfully");
             
             return ResponseEntity.ok(Map.of("message", "Password changed successfully"));
+        } catch (PasswordHashingBusyException e) {
+            return passwordHashingBusy(e);
         } catch (Exception e) {
             System.out.println("Error in change password: " + e.getMessage());
             e.printStackTrace();
             return ResponseEntity.status(401).body("Invalid token or user not found");
         }
     }
+
+    // -------------------- PASSWORD HASHING SATURATED --------------------
+    // register / login / reset-password: BCrypt pool is full, tell the client to back off briefly
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<?> passwordHashingBusy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", e.getMessage()));
+    }
 }
@@ -1,11 +1,11 @@
 package com.expensemate.expensemate_backend.controller;
 
 import com.expensemate.expensemate_backend.dto.BudgetDto;
-import com.expensemate.expensemate_backend.security.JwtUtil;
+import com.expensemate.expensemate_backend.security.JwtPrincipal;
 import com.expensemate.expensemate_backend.service.BudgetService;
 import com.expensemate.expensemate_backend.service.NotificationService;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -17,21 +17,18 @@ import java.util.Locale;
 public class BudgetController {
 
     private final BudgetService budgetService;
-    private final JwtUtil jwtUtil;
     private final NotificationService notificationService;
 
     public BudgetController(BudgetService budgetService,
-                            JwtUtil jwtUtil,
                             NotificationService notificationService) {
         this.budgetService = budgetService;
-        this.jwtUtil = jwtUtil;
         this.notificationService = notificationService;
     }
 
     // ----------------- Set or Create Budget -----------------
     @PostMapping
-    public ResponseEntity<?> setBudget(@RequestBody BudgetDto dto, HttpServletRequest request) {
-        Long userId = jwtUtil.extractUserIdFromRequest(request);
+    public ResponseEntity<?> setBudget(@RequestBody BudgetDto dto, @AuthenticationPrincipal JwtPrincipal principal) {
+        Long userId = principal != null ? principal.userId() : null;
         if (userId == null) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid or missing JWT");
         }
@@ -43,8 +40,8 @@ public class BudgetController {
 
     // ----------------- Update Budget -----------------
     @PutMapping
-    public ResponseEntity<?> updateBudget(@RequestBody BudgetDto dto, HttpServletRequest request) {
-        Long userId = jwtUtil.extractUserIdFromRequest(request);
+    public ResponseEntity<?> updateBudget(@RequestBody BudgetDto dto, @AuthenticationPrincipal JwtPrincipal principal) {
+        Long userId = principal != null ? principal.userId() : null;
         if (userId == null) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid or missing JWT");
         }
@@ -55,10 +52,10 @@ public class BudgetController {
 
     // ----------------- Get Budget Status -----------------
     @GetMapping
-    public ResponseEntity<?> getBudgetStatus(HttpServletRequest request,
+    public ResponseEntity<?> getBudgetStatus(@AuthenticationPrincipal JwtPrincipal principal,
                                              @RequestParam(required = false) Integer month,
                                              @RequestParam(required = false) Integer year) {
-        Long userId = jwtUtil.extractUserIdFromRequest(request);
+        Long userId = principal != null ? principal.userId() : null;
         if (userId == null) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid or missing JWT");
         }
@@ -1,17 +1,28 @@
 package com.expensemate.expensemate_backend.controller;
 
 import com.expensemate.expensemate_backend.dto.ExpenseDto;
+import com.expensemate.expensemate_backend.dto.ExpenseFilter;
+import com.expensemate.expensemate_backend.dto.ExpenseImportResultDto;
+import com.expensemate.expensemate_backend.dto.ExpenseSummaryDto;
 import com.expensemate.expensemate_backend.model.Expense;
-import com.expensemate.expensemate_backend.security.JwtUtil;
+import com.expensemate.expensemate_backend.security.JwtPrincipal;
+import com.expensemate.expensemate_backend.service.ExpenseImportService;
 import com.expensemate.expensemate_backend.service.ExpenseService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/expenses")
@@ -21,44 +32,102 @@ public class ExpenseController {
     private ExpenseService expenseService;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private ExpenseImportService expenseImportService;
 
     // ----------------- Add Expense -----------------
     @PostMapping
-    public ResponseEntity<Expense> addExpense(@RequestBody ExpenseDto dto, HttpServletRequest request) {
-        Long userId = jwtUtil.extractUserIdFromRequest(request);
+    public ResponseEntity<ExpenseSummaryDto> addExpense(@RequestBody ExpenseDto dto, @AuthenticationPrincipal JwtPrincipal principal) {
+        Long userId = principal.userId();
         Expense saved = expenseService.addExpense(userId, dto);
-        return ResponseEntity.ok(saved);
+        return ResponseEntity.ok(ExpenseSummaryDto.from(saved));
+    }
+
+    // ----------------- Bulk Import (CSV or JSON array, streamed) -----------------
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ExpenseImportResultDto> importCsv(@AuthenticationPrincipal JwtPrincipal principal,
+                                                            HttpServletRequest request) throws IOException {
+        Long userId = principal.userId();
+        ExpenseImportResultDto result = expenseImportService.importCsv(userId, request.getInputStream());
+        // Unusable header: 400, still with the counts of anything imported before the error
+        return result.getError() != null ? ResponseEntity.badRequest().body(result) : ResponseEntity.ok(result);
+    }
+
+    @PostMapping(value = "/import", consumes = "application/json")
+    public ResponseEntity<ExpenseImportResultDto> importJson(@AuthenticationPrincipal JwtPrincipal principal,
+                                                            HttpServletRequest request) throws IOException {
+        Long userId = principal.userId();
+        ExpenseImportResultDto result = expenseImportService.importJson(userId, request.getInputStream());
+        // Unreadable body: 400, still with the counts of anything imported before the error
+        return result.getError() != null ? ResponseEntity.badRequest().body(result) : ResponseEntity.ok(result);
     }
 
     // ----------------- Get Expenses (filters + pagination) -----------------
+    // All filters combine. `category` and `date` (yyyy-MM) are kept for older clients.
+    // Offset mode by default; passing ?cursor= (empty for the first page) switches to keyset mode,
+    // which returns {content, nextCursor, hasNext} without a count query and ignores `sort`.
     @GetMapping
-    public ResponseEntity<Page<Expense>> getExpenses(
+    public ResponseEntity<?> getExpenses(
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String date,
+            @RequestParam(required = false) Set<String> categories,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Double minAmount,
+            @RequestParam(required = false) Double maxAmount,
+            @RequestParam(required = false) Boolean flagged,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            HttpServletRequest request) {
-
-        Long userId = jwtUtil.extractUserIdFromRequest(request);
-        Page<Expense> expenses = expenseService.getExpenses(userId, category, date, PageRequest.of(page, size));
-        return ResponseEntity.ok(expenses);
+            @RequestParam(required = false) String cursor,
+            @AuthenticationPrincipal JwtPrincipal principal) {
+
+        Long userId = principal.userId();
+
+        ExpenseFilter filter = new ExpenseFilter();
+        Set<String> allCategories = new HashSet<>();
+        if (categories != null) allCategories.addAll(categories);
+        if (category != null && !category.isEmpty()) allCategories.add(category);
+        filter.setCategories(allCategories);
+        filter.setFrom(from);
+        filter.setTo(to);
+        filter.setMinAmount(minAmount);
+        filter.setMaxAmount(maxAmount);
+        filter.setFlagged(flagged);
+        filter.setDescriptionPrefix(q);
+
+        try {
+            if (date != null && !date.isEmpty()) { // format: yyyy-MM
+                YearMonth month = YearMonth.parse(date);
+                filter.setFrom(month.atDay(1));
+                filter.setTo(month.atEndOfMonth());
+            }
+
+            if (cursor != null) {
+                return ResponseEntity.ok(expenseService.getExpensesByCursor(userId, filter, cursor, size));
+            }
+
+            Page<ExpenseSummaryDto> expenses = expenseService.getExpenses(userId, filter, ExpenseService.parseSort(sort), page, size);
+            return ResponseEntity.ok(expenses);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     // ----------------- Update Expense -----------------
     @PutMapping("/{id}")
-    public ResponseEntity<Expense> updateExpense(@PathVariable Long id,
+    public ResponseEntity<ExpenseSummaryDto> updateExpense(@PathVariable Long id,
             @RequestBody ExpenseDto dto,
-            HttpServletRequest request) {
-        Long userId = jwtUtil.extractUserIdFromRequest(request);
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        Long userId = principal.userId();
         Expense updated = expenseService.updateExpense(id, dto, userId); // pass userId to check ownership
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok(ExpenseSummaryDto.from(updated));
     }
 
     // ----------------- Delete Expense -----------------
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteExpense(@PathVariable Long id, HttpServletRequest request) {
-        Long userId = jwtUtil.extractUserIdFromRequest(request);
+    public ResponseEntity<Void> deleteExpense(@PathVariable Long id, @AuthenticationPrincipal JwtPrincipal principal) {
+        Long userId = principal.userId();
         expenseService.deleteExpense(id, userId); // pass userId to check ownership
         return ResponseEntity.noContent().build();
     }
@@ -67,8 +136,8 @@ public class ExpenseController {
     @GetMapping("/total/{month}/{year}")
     public ResponseEntity<Map<String, Object>> getTotalMonthlySpending(@PathVariable int month,
             @PathVariable int year,
-            HttpServletRequest request) {
-        Long userId = jwtUtil.extractUserIdFromRequest(request);
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        Long userId = principal.userId();
         double totalSpent = expenseService.getTotalMonthlySpending(userId, month, year);
         return ResponseEntity.ok(Map.of(
                 "month", month,
@@ -80,8 +149,8 @@ public class ExpenseController {
     @GetMapping("/categories/{month}/{year}")
     public ResponseEntity<Map<String, Double>> getSpendingByCategory(@PathVariable int month,
             @PathVariable int year,
-            HttpServletRequest request) {
-        Long userId = jwtUtil.extractUserIdFromRequest(request);
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        Long userId = principal.userId();
         Map<String, Double> spendingByCategory = expenseService.getSpendingByCategory(userId, month, year);
         return ResponseEntity.ok(spendingByCategory);
     }
@@ -90,8 +159,8 @@ public class ExpenseController {
     @GetMapping("/report/{month}/{year}")
     public ResponseEntity<Map<String, Object>> getMonthlyReport(@PathVariable int month,
             @PathVariable int year,
-            HttpServletRequest request) {
-        Long userId = jwtUtil.extractUserIdFromRequest(request);
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        Long userId = principal.userId();
 
         double totalSpent = expenseService.getTotalMonthlySpending(userId, month, year);
         Map<String, Double> spendingByCategory = expenseService.getSpendingByCategory(userId, month, year);
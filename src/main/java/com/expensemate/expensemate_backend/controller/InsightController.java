@@ -1,12 +1,12 @@
 package com.expensemate.expensemate_backend.controller;
 
 import com.expensemate.expensemate_backend.dto.InsightDto;
-import com.expensemate.expensemate_backend.security.JwtUtil;
+import com.expensemate.expensemate_backend.security.JwtPrincipal;
 import com.expensemate.expensemate_backend.service.InsightService;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -14,28 +14,26 @@ import org.springframework.web.bind.annotation.*;
 public class InsightController {
 
     private final InsightService insightService;
-    private final JwtUtil jwtUtil;
 
-    public InsightController(InsightService insightService, JwtUtil jwtUtil) {
+    public InsightController(InsightService insightService) {
         this.insightService = insightService;
-        this.jwtUtil = jwtUtil;
     }
 
     /**
      * Get AI-powered user spending insights.
      *
-     * @param request HttpServletRequest for JWT extraction
+     * @param principal Verified JWT claims of the caller
      * @param month   "all", "current", or "YYYY-MM" to filter expenses
      * @return InsightDto containing spending metrics, trends, unusual expenses, and budget health
      */
     @GetMapping
     public ResponseEntity<InsightDto> getUserInsights(
-            HttpServletRequest request,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @RequestParam(defaultValue = "all") String month) {
 
         try {
             // Extract user ID from JWT
-            Long userId = jwtUtil.extractUserIdFromRequest(request);
+            Long userId = principal != null ? principal.userId() : null;
             System.out.println("InsightController: Extracted userId: " + userId);
             System.out.println("InsightController: Request month: " + month);
             
@@ -59,18 +57,18 @@ public class InsightController {
     /**
      * Export AI-powered insights as PDF.
      *
-     * @param request HttpServletRequest for JWT extraction
+     * @param principal Verified JWT claims of the caller
      * @param month   "all", "current", or "YYYY-MM" to filter expenses
      * @return PDF file containing the insights analysis
      */
     @GetMapping("/export-pdf")
     public ResponseEntity<byte[]> exportInsightsPDF(
-            HttpServletRequest request,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @RequestParam(defaultValue = "all") String month) {
 
         try {
             // Extract user ID from JWT
-            Long userId = jwtUtil.extractUserIdFromRequest(request);
+            Long userId = principal != null ? principal.userId() : null;
             System.out.println("InsightController: PDF Export - Extracted userId: " + userId);
             System.out.println("InsightController: PDF Export - Request month: " + month);
 
@@ -1,53 +1,111 @@
 package com.expensemate.expensemate_backend.controller;
 
-import com.expensemate.expensemate_backend.model.Notification;
+import com.expensemate.expensemate_backend.dto.NotificationDto;
+import com.expensemate.expensemate_backend.security.JwtPrincipal;
 import com.expensemate.expensemate_backend.service.NotificationService;
-import com.expensemate.expensemate_backend.service.UserDetailsImpl;
+import com.expensemate.expensemate_backend.service.NotificationStreamService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationStreamService notificationStreamService;
 
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService,
+                                  NotificationStreamService notificationStreamService) {
         this.notificationService = notificationService;
+        this.notificationStreamService = notificationStreamService;
     }
 
     // ----------------- User Endpoints -----------------
 
+    // Full history by default (older clients); passing ?before= (empty for the first page) switches
+    // to keyset mode, which returns {content, nextCursor, hasNext} with at most `size` items.
     @GetMapping("/notifications")
-    public ResponseEntity<List<Notification>> getUserNotifications(Authentication authentication) {
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        Long userId = userDetails.getId();
+    public ResponseEntity<?> getUserNotifications(@AuthenticationPrincipal JwtPrincipal principal,
+                                                  @RequestParam(required = false) String before,
+                                                  @RequestParam(defaultValue = "20") int size) {
+        Long userId = principal.userId();
 
-        List<Notification> notifications = notificationService.getUserNotifications(userId);
+        if (before != null) {
+            try {
+                return ResponseEntity.ok(notificationService.getUserNotificationPage(userId, before, size));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+        }
+
+        List<NotificationDto> notifications = notificationService.getUserNotifications(userId);
         return ResponseEntity.ok(notifications);
     }
 
+    // Badge count for the UI: a cached counter plus unread broadcasts, no notification rows loaded
+    @GetMapping("/notifications/unread-count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(@AuthenticationPrincipal JwtPrincipal principal) {
+        return ResponseEntity.ok(Map.of("unreadCount", notificationService.getUnreadCount(principal.userId())));
+    }
+
+    // Push channel: "notification" events carry a NotificationDto; comments are heartbeats.
+    // Replaces polling; the connection holds no request thread while idle.
+    @GetMapping(value = "/notifications/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@AuthenticationPrincipal JwtPrincipal principal) {
+        return notificationStreamService.subscribe(principal.userId());
+    }
+
     @PutMapping("/notifications/{id}/read")
-    public ResponseEntity<Notification> markNotificationRead(@PathVariable Long id) {
-        Notification updated = notificationService.markAsRead(id);
-        return ResponseEntity.ok(updated);
+    public ResponseEntity<NotificationDto> markNotificationRead(@AuthenticationPrincipal JwtPrincipal principal,
+                                                                @PathVariable Long id) {
+        return notificationService.markAsRead(principal.userId(), id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
-    @PutMapping("/notifications/read-all")
-    public ResponseEntity<String> markAllRead(Authentication authentication) {
-        if (authentication == null) {
-            return ResponseEntity.status(401).body("Unauthorized: No authentication found.");
+    // Bulk mark-read: {"ids": [1, 2, 3]} for personal notifications, or {"upTo": "<cursor>"} for an
+    // item and everything older (cursor format as in the paged feed). Returns {"updated": n}.
+    @PutMapping("/notifications/read")
+    public ResponseEntity<Map<String, Object>> markNotificationsRead(@AuthenticationPrincipal JwtPrincipal principal,
+                                                                     @RequestBody Map<String, Object> body) {
+        Long userId = principal.userId();
+        try {
+            int updated;
+            if (body.get("ids") instanceof List<?> ids) {
+                updated = notificationService.markAsRead(userId,
+                        ids.stream().map(id -> Long.valueOf(String.valueOf(id))).toList());
+            } else if (body.get("upTo") instanceof String upTo) {
+                updated = notificationService.markAsReadUpTo(userId, upTo);
+            } else {
+                return ResponseEntity.badRequest().body(Map.of("error", "Either ids or upTo is required"));
+            }
+            return ResponseEntity.ok(Map.of("updated", updated));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
+    }
 
-        Object principal = authentication.getPrincipal();
-        if (!(principal instanceof UserDetailsImpl userDetails)) {
-            return ResponseEntity.status(401).body("Unauthorized: Invalid principal type.");
+    @PutMapping("/notifications/broadcasts/{id}/read")
+    public ResponseEntity<String> markBroadcastRead(@AuthenticationPrincipal JwtPrincipal principal,
+                                                    @PathVariable Long id) {
+        notificationService.markBroadcastAsRead(principal.userId(), id);
+        return ResponseEntity.ok("Notification marked as read.");
+    }
+
+    // Same {"updated": n} response as PUT /notifications/read
+    @PutMapping("/notifications/read-all")
+    public ResponseEntity<Map<String, Object>> markAllRead(@AuthenticationPrincipal JwtPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Unauthorized: No authentication found."));
         }
 
-        notificationService.markAllAsRead(userDetails.getId());
-        return ResponseEntity.ok("All notifications marked as read.");
+        int updated = notificationService.markAllAsRead(principal.userId());
+        return ResponseEntity.ok(Map.of("updated", updated));
     }
 }
@@ -1,11 +1,11 @@
 package com.expensemate.expensemate_backend.controller;
 
 import com.expensemate.expensemate_backend.dto.ReportDto;
-import com.expensemate.expensemate_backend.security.JwtUtil;
+import com.expensemate.expensemate_backend.security.JwtPrincipal;
 import com.expensemate.expensemate_backend.service.ReportService;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -15,21 +15,19 @@ import java.time.LocalDate;
 public class ReportController {
 
     private final ReportService reportService;
-    private final JwtUtil jwtUtil;
 
-    public ReportController(ReportService reportService, JwtUtil jwtUtil) {
+    public ReportController(ReportService reportService) {
         this.reportService = reportService;
-        this.jwtUtil = jwtUtil;
     }
 
     // ----------------- Monthly Report -----------------
     @GetMapping("/monthly")
     public ResponseEntity<ReportDto> getMonthlyReport(
-            HttpServletRequest request,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @RequestParam(required = false) Integer month,
             @RequestParam(required = false) Integer year) {
 
-        Long userId = jwtUtil.extractUserIdFromRequest(request);
+        Long userId = principal != null ? principal.userId() : null;
 
         // Default month/year to current if not provided
         LocalDate now = LocalDate.now();
@@ -47,10 +45,10 @@ public class ReportController {
     // ----------------- Annual Report -----------------
     @GetMapping("/annual")
     public ResponseEntity<ReportDto> getAnnualReport(
-            HttpServletRequest request,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @RequestParam(required = false) Integer year) {
 
-        Long userId = jwtUtil.extractUserIdFromRequest(request);
+        Long userId = principal != null ? principal.userId() : null;
         if (year == null) {
             year = LocalDate.now().getYear();
         }
@@ -60,11 +58,11 @@ public class ReportController {
     // ----------------- Export PDF -----------------
     @GetMapping("/export/pdf")
     public ResponseEntity<byte[]> exportPdf(
-            HttpServletRequest request,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @RequestParam(required = false) Integer month,
             @RequestParam(required = false) Integer year) {
 
-        Long userId = jwtUtil.extractUserIdFromRequest(request);
+        Long userId = principal != null ? principal.userId() : null;
 
         // Default year to current if not provided, but keep month null for annual reports
         LocalDate now = LocalDate.now();
@@ -82,11 +80,11 @@ public class ReportController {
     // ----------------- Export Excel -----------------
     @GetMapping("/export/excel")
     public ResponseEntity<byte[]> exportExcel(
-            HttpServletRequest request,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @RequestParam(required = false) Integer month,
             @RequestParam(required = false) Integer year) {
 
-        Long userId = jwtUtil.extractUserIdFromRequest(request);
+        Long userId = principal != null ? principal.userId() : null;
 
         // Default year to current if not provided, but keep month null for annual reports
         LocalDate now = LocalDate.now();
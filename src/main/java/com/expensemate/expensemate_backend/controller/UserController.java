@@ -2,11 +2,10 @@ package com.expensemate.expensemate_backend.controller;
 
 import com.expensemate.expensemate_backend.model.User;
 import com.expensemate.expensemate_backend.repository.UserRepository;
+import com.expensemate.expensemate_backend.security.JwtPrincipal;
 import com.expensemate.expensemate_backend.service.UserService;
-import com.expensemate.expensemate_backend.security.JwtUtil;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -15,18 +14,16 @@ public class UserController {
 
     private final UserService userService;
     private final UserRepository userRepository;
-    private final JwtUtil jwtUtil;
 
-    public UserController(UserService userService, UserRepository userRepository, JwtUtil jwtUtil) {
+    public UserController(UserService userService, UserRepository userRepository) {
         this.userService = userService;
         this.userRepository = userRepository;
-        this.jwtUtil = jwtUtil;
     }
 
     // Get user profile
     @GetMapping("/profile")
-    public ResponseEntity<?> getProfile(@AuthenticationPrincipal UserDetails userDetails) {
-        String email = userDetails.getUsername();
+    public ResponseEntity<?> getProfile(@AuthenticationPrincipal JwtPrincipal principal) {
+        String email = principal.email();
         return userService.getUserByEmail(email)
                 .<ResponseEntity<?>>map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.status(404).body("User not found"));
@@ -34,9 +31,9 @@ public class UserController {
 
     // Update user profile
     @PutMapping("/profile")
-    public ResponseEntity<?> updateProfile(@AuthenticationPrincipal UserDetails userDetails,
+    public ResponseEntity<?> updateProfile(@AuthenticationPrincipal JwtPrincipal principal,
                                            @RequestBody User updatedUser) {
-        String email = userDetails.getUsername();
+        String email = principal.email();
 
         // Check if updated email is already taken by another user
         if (!email.equalsIgnoreCase(updatedUser.getEmail())
@@ -0,0 +1,16 @@
+package com.expensemate.expensemate_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+    private List<T> content;   // Items of this page
+    private String nextCursor; // Pass back as ?cursor= to fetch the next page; null on the last page
+    private boolean hasNext;
+}
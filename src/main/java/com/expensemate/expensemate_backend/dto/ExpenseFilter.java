@@ -0,0 +1,18 @@
+package com.expensemate.expensemate_backend.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+// Optional, combinable filters for listing expenses; null / empty fields are ignored
+@Data
+public class ExpenseFilter {
+    private Set<String> categories;   // Any of these categories
+    private LocalDate from;           // Inclusive
+    private LocalDate to;             // Inclusive
+    private Double minAmount;         // Inclusive
+    private Double maxAmount;         // Inclusive
+    private Boolean flagged;
+    private String descriptionPrefix; // Case follows the column collation
+}
@@ -0,0 +1,17 @@
+package com.expensemate.expensemate_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseImportResultDto {
+    private long imported;       // Rows inserted
+    private long skipped;        // Rows rejected by validation
+    private List<String> errors; // First few validation errors, e.g. "Row 12: amount is required"
+    private String error;        // Set when the file itself was unreadable; rows before that point were still imported
+}
@@ -0,0 +1,33 @@
+package com.expensemate.expensemate_backend.dto;
+
+import com.expensemate.expensemate_backend.model.Expense;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Read model for expense lists: only expense columns plus the owning user's id (the FK, no join to users)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseSummaryDto {
+    private Long id;
+    private Double amount;
+    private String category;
+    private String description;
+    private LocalDate date;
+    private boolean flagged;
+    private Long userId;
+
+    public static ExpenseSummaryDto from(Expense expense) {
+        return new ExpenseSummaryDto(
+                expense.getId(),
+                expense.getAmount(),
+                expense.getCategory(),
+                expense.getDescription(),
+                expense.getDate(),
+                expense.isFlagged(),
+                expense.getUser() != null ? expense.getUser().getId() : null);
+    }
+}
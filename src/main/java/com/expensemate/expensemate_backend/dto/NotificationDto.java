@@ -1,5 +1,18 @@
 package com.expensemate.expensemate_backend.dto;
 
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class NotificationDto {
-    
+    private Long id;                 // Notification id, or broadcast id when broadcast is true
+    private String message;
+    private boolean read;
+    private LocalDateTime createdAt;
+    private boolean broadcast;       // Sent to all users; mark read via /notifications/broadcasts/{id}/read
 }
@@ -0,0 +1,21 @@
+package com.expensemate.expensemate_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationFanoutJobDto {
+    private String jobId;
+    private String status;           // QUEUED, RUNNING, COMPLETED, CANCELLED or FAILED
+    private String message;
+    private long inserted;           // Notifications written so far
+    private int percentComplete;     // By user-id range covered
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt; // null while queued or running
+    private String error;            // Set when FAILED
+}
@@ -0,0 +1,31 @@
+package com.expensemate.expensemate_backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// A notification addressed to every user, stored once. Users see broadcasts created after they
+// signed up; whether one is read comes from their NotificationState watermark.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(
+    name = "broadcast_notifications",
+    indexes = {
+        @Index(name = "idx_broadcast_notifications_created_at", columnList = "created_at")
+    }
+)
+public class BroadcastNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String message;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
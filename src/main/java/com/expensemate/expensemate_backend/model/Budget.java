@@ -26,7 +26,10 @@ public class Budget {
     // Track how much has been spent for this budget
     private Double spent = 0.0;
 
-    @ManyToOne
+    // Lazy: budgets are looked up by user id and never need the User row itself
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 }
@@ -1,5 +1,6 @@
 package com.expensemate.expensemate_backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDate;
@@ -9,7 +10,15 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "expenses")
+@Table(
+    name = "expenses",
+    indexes = {
+        @Index(name = "idx_expenses_user_date", columnList = "user_id, date"),
+        @Index(name = "idx_expenses_user_category_date", columnList = "user_id, category, date"),
+        @Index(name = "idx_expenses_flagged", columnList = "flagged"),
+        @Index(name = "idx_expenses_date", columnList = "date")
+    }
+)
 public class Expense {
 
     @Id
@@ -28,7 +37,11 @@ public class Expense {
     @Column(nullable = false)
     private boolean flagged = false;
 
-    @ManyToOne
+    // Lazy: expense reads are served by ExpenseSummaryDto projections, which only need user_id
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "user_id")
     private User user;
 }
@@ -0,0 +1,63 @@
+package com.expensemate.expensemate_backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// Outbound e-mail waiting to be sent (transactional outbox).
+// Written in the same transaction as the change that triggers it, delivered by MailOutboxWorker;
+// rows are deleted once sent, so the table only holds pending and dead messages.
+// Messages with an `expires_at` (one-time codes) are never sent late and are purged once expired,
+// failed ones included.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(
+    name = "mail_outbox",
+    indexes = {
+        @Index(name = "idx_mail_outbox_status_next", columnList = "status, next_attempt_at")
+    }
+)
+public class MailOutbox {
+
+    public enum Status { PENDING, SENDING, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Lease of the worker currently sending; an expired lease makes the row claimable again
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    // Null for mail that stays worth sending; otherwise the row is dropped after this time
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,43 @@
+package com.expensemate.expensemate_backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Running total of a user's spending per month and category.
+// Maintained incrementally from the expense write paths (see SpendingRollupService).
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(
+    name = "monthly_spending",
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"user_id", "year", "month", "category"})
+    }
+)
+public class MonthlySpending {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Integer year;
+
+    @Column(nullable = false)
+    private Integer month;
+
+    // Empty string stands in for expenses without a category (NULL would break the unique key)
+    @Column(nullable = false)
+    private String category;
+
+    @Column(nullable = false)
+    private Double total;
+
+    @Column(name = "expense_count", nullable = false)
+    private Long expenseCount;
+}
@@ -1,5 +1,6 @@
 package com.expensemate.expensemate_backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -9,7 +10,13 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "notifications")
+@Table(
+    name = "notifications",
+    indexes = {
+        // Serves the per-user feed, newest first, and its keyset pages
+        @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at")
+    }
+)
 public class Notification {
 
     @Id
@@ -23,7 +30,11 @@ public class Notification {
 
     private LocalDateTime createdAt;
 
-    @ManyToOne
+    // Lazy and not serialized: notifications are always fetched for a known user
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "user_id")
     private User user;
 }
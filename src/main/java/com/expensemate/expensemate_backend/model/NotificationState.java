@@ -0,0 +1,27 @@
+package com.expensemate.expensemate_backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Per-user notification bookkeeping. Broadcasts with id <= `broadcastReadUpTo` count as read,
+// so reading broadcasts costs one row per user rather than one per user and broadcast.
+// Users without a row have read nothing.
+// `unreadCount` caches the number of unread personal notifications; null until first counted.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "notification_state")
+public class NotificationState {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "broadcast_read_up_to", nullable = false)
+    private Long broadcastReadUpTo;
+
+    @Column(name = "unread_count")
+    private Long unreadCount;
+}
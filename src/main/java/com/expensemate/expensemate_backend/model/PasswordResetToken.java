@@ -6,6 +6,13 @@ import lombok.Data;
 
 @Entity
 @Data
+@Table(
+    name = "password_reset_token",
+    indexes = {
+        @Index(name = "idx_password_reset_token_email", columnList = "email"),
+        @Index(name = "idx_password_reset_token_expiration", columnList = "expiration_time")
+    }
+)
 public class PasswordResetToken {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -14,5 +21,8 @@ public class PasswordResetToken {
     private String email;
     private String otp;
     private Long expirationTime; // in millis
-}
 
+    // Wrong guesses so far; the token is discarded at app.otp.max-attempts
+    @Column(nullable = false)
+    private int attempts;
+}
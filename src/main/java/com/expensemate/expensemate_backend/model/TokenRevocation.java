@@ -0,0 +1,23 @@
+package com.expensemate.expensemate_backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Per-user JWT revocation watermark: tokens issued at or before `revokedBefore` are rejected.
+// Loaded into memory by TokenRevocationService so the JWT filter never queries this table.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "token_revocations")
+public class TokenRevocation {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Epoch millis, compared with the token's millisecond issue time (JwtUtil ISSUED_AT_MILLIS)
+    @Column(name = "revoked_before", nullable = false)
+    private Long revokedBefore;
+}
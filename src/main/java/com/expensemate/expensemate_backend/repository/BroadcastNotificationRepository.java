@@ -0,0 +1,61 @@
+package com.expensemate.expensemate_backend.repository;
+
+import com.expensemate.expensemate_backend.model.BroadcastNotification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// A user sees broadcasts sent since they signed up. Accounts without a created_at (rows that
+// predate the column) have no sign-up time to compare against and see every broadcast.
+@Repository
+public interface BroadcastNotificationRepository extends JpaRepository<BroadcastNotification, Long> {
+
+    // Broadcasts sent since the user signed up, newest first
+    @Query("SELECT b FROM BroadcastNotification b " +
+           "WHERE b.createdAt >= (SELECT COALESCE(u.createdAt, b.createdAt) FROM User u WHERE u.id = :userId) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BroadcastNotification> findVisibleToUser(@Param("userId") Long userId);
+
+    // First keyset page of a user's broadcasts
+    @Query("SELECT b FROM BroadcastNotification b " +
+           "WHERE b.createdAt >= (SELECT COALESCE(u.createdAt, b.createdAt) FROM User u WHERE u.id = :userId) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BroadcastNotification> findVisibleToUser(@Param("userId") Long userId, Pageable pageable);
+
+    // Keyset page: broadcasts strictly after (createdAt, id) in newest-first order
+    @Query("SELECT b FROM BroadcastNotification b " +
+           "WHERE b.createdAt >= (SELECT COALESCE(u.createdAt, b.createdAt) FROM User u WHERE u.id = :userId) " +
+           "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BroadcastNotification> findVisibleToUserBefore(@Param("userId") Long userId,
+                                                        @Param("createdAt") LocalDateTime createdAt,
+                                                        @Param("id") long id,
+                                                        Pageable pageable);
+
+    // Broadcasts the user can see that are above their read watermark
+    @Query("SELECT COUNT(b) FROM BroadcastNotification b " +
+           "WHERE b.id > :readUpTo " +
+           "AND b.createdAt >= (SELECT COALESCE(u.createdAt, b.createdAt) FROM User u WHERE u.id = :userId)")
+    long countUnreadVisibleToUser(@Param("userId") Long userId, @Param("readUpTo") long readUpTo);
+
+    // Broadcasts the user can see with id in (afterId, upToId]: those a watermark raise marks read
+    @Query("SELECT COUNT(b) FROM BroadcastNotification b " +
+           "WHERE b.id > :afterId AND b.id <= :upToId " +
+           "AND b.createdAt >= (SELECT COALESCE(u.createdAt, b.createdAt) FROM User u WHERE u.id = :userId)")
+    long countVisibleToUserInRange(@Param("userId") Long userId,
+                                   @Param("afterId") long afterId,
+                                   @Param("upToId") long upToId);
+
+    @Query("SELECT MAX(b.id) FROM BroadcastNotification b")
+    Long findMaxId();
+
+    // Newest broadcast at or after (createdAt, id) in newest-first order
+    @Query("SELECT MAX(b.id) FROM BroadcastNotification b " +
+           "WHERE b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id <= :id)")
+    Long findMaxIdUpTo(@Param("createdAt") LocalDateTime createdAt, @Param("id") long id);
+}
@@ -3,8 +3,11 @@ package com.expensemate.expensemate_backend.repository;
 import com.expensemate.expensemate_backend.model.Budget;
 import com.expensemate.expensemate_backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -20,12 +23,38 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
     @Query("SELECT COUNT(b) FROM Budget b WHERE b.spent > b.amount")
     Long countBudgetsOverLimit();
 
-    // Helper method: find by userId directly (used in service if needed)
-    default Optional<Budget> findByUserIdAndMonthAndYear(Long userId, Integer month, Integer year) {
-        return findAll().stream()
-                .filter(b -> b.getUser().getId().equals(userId)
-                        && b.getMonth().equals(month)
-                        && b.getYear().equals(year))
-                .findFirst();
-    }
+    // Find by userId directly — served by the (user_id, month, year) unique index
+    Optional<Budget> findByUserIdAndMonthAndYear(Long userId, Integer month, Integer year);
+
+    // Atomically move the running spent counter; a no-op when the user has no budget that month
+    @Modifying
+    @Query("UPDATE Budget b SET b.spent = COALESCE(b.spent, 0) + :delta " +
+           "WHERE b.user.id = :userId AND b.month = :month AND b.year = :year")
+    int incrementSpent(@Param("userId") Long userId,
+                       @Param("month") int month,
+                       @Param("year") int year,
+                       @Param("delta") double delta);
+
+    @Query("SELECT MIN(b.id) FROM Budget b")
+    Long findMinId();
+
+    @Query("SELECT MAX(b.id) FROM Budget b")
+    Long findMaxId();
+
+    // Recompute spent from the expenses table for budgets with id in [fromId, toId];
+    // only rows whose counter drifted are written. Returns the number of corrected budgets.
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE budgets b " +
+                   "JOIN (SELECT b2.id, COALESCE(SUM(e.amount), 0) AS actual " +
+                   "      FROM budgets b2 " +
+                   "      LEFT JOIN expenses e ON e.user_id = b2.user_id " +
+                   "       AND e.date >= MAKEDATE(b2.year, 1) + INTERVAL (b2.month - 1) MONTH " +
+                   "       AND e.date < MAKEDATE(b2.year, 1) + INTERVAL b2.month MONTH " +
+                   "      WHERE b2.id BETWEEN :fromId AND :toId " +
+                   "      GROUP BY b2.id) t ON t.id = b.id " +
+                   "SET b.spent = t.actual " +
+                   "WHERE b.spent IS NULL OR ABS(b.spent - t.actual) > 0.005",
+           nativeQuery = true)
+    int reconcileSpent(@Param("fromId") long fromId, @Param("toId") long toId);
 }
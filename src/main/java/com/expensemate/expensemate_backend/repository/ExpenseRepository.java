@@ -1,9 +1,10 @@
 package com.expensemate.expensemate_backend.repository;
 
+import com.expensemate.expensemate_backend.dto.ExpenseSummaryDto;
 import com.expensemate.expensemate_backend.model.Expense;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,60 +13,39 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpecificationExecutor<Expense>,
+        ExpenseRepositoryCustom {
 
-    // Get all expenses (no pagination)
-    List<Expense> findByUserId(Long userId);
+    // ----- Read models (ExpenseSummaryDto) — select only expense columns, never the users table -----
 
-    // Get expenses by user (paged)
-    Page<Expense> findByUserId(Long userId, Pageable pageable);
+    String SUMMARY_SELECT = "SELECT new com.expensemate.expensemate_backend.dto.ExpenseSummaryDto(" +
+            "e.id, e.amount, e.category, e.description, e.date, e.flagged, e.user.id) FROM Expense e ";
 
-    // Filter by category + user (paged)
-    Page<Expense> findByUserIdAndCategory(Long userId, String category, Pageable pageable);
+    // All expenses of a user (insights)
+    @Query(SUMMARY_SELECT + "WHERE e.user.id = :userId")
+    List<ExpenseSummaryDto> findSummariesByUserId(@Param("userId") Long userId);
 
-    // Filter by date (month/year) + user (paged)
-    Page<Expense> findByUserIdAndDateBetween(Long userId, LocalDate start, LocalDate end, Pageable pageable);
+    // Expenses of a user between dates, inclusive (insights / reports)
+    @Query(SUMMARY_SELECT + "WHERE e.user.id = :userId AND e.date >= :start AND e.date <= :end")
+    List<ExpenseSummaryDto> findSummariesByUserIdAndDateBetween(@Param("userId") Long userId,
+                                                               @Param("start") LocalDate start,
+                                                               @Param("end") LocalDate end);
 
-    // For reports: all expenses between dates (no pagination)
-    List<Expense> findByUserIdAndDateBetween(Long userId, LocalDate start, LocalDate end);
+    // All expenses (admin)
+    @Query(SUMMARY_SELECT)
+    List<ExpenseSummaryDto> findAllSummaries();
 
-    List<Expense> findTop10ByOrderByDateDesc();
+    // Most recent expenses (admin dashboard); page size picks how many
+    @Query(SUMMARY_SELECT + "ORDER BY e.date DESC, e.id DESC")
+    List<ExpenseSummaryDto> findRecentSummaries(Pageable pageable);
 
     // Find flagged expenses for admin audit
-    List<Expense> findByFlaggedTrue();
+    @Query(SUMMARY_SELECT + "WHERE e.flagged = true")
+    List<ExpenseSummaryDto> findFlaggedSummaries();
 
+    long countByFlaggedTrue();
 
-    // Sum of expenses for a month
-    @Query("SELECT COALESCE(SUM(e.amount), 0) " +
-           "FROM Expense e " +
-           "WHERE e.user.id = :userId " +
-           "AND MONTH(e.date) = :month " +
-           "AND YEAR(e.date) = :year")
-    double sumExpensesForUserAndMonth(@Param("userId") Long userId,
-                                      @Param("month") int month,
-                                      @Param("year") int year);
-
-    // Sum of expenses grouped by category for a month
-    @Query("SELECT e.category, COALESCE(SUM(e.amount), 0) " +
-           "FROM Expense e " +
-           "WHERE e.user.id = :userId " +
-           "AND MONTH(e.date) = :month " +
-           "AND YEAR(e.date) = :year " +
-           "GROUP BY e.category")
-    List<Object[]> sumExpensesByCategory(@Param("userId") Long userId,
-                                         @Param("month") int month,
-                                         @Param("year") int year);
-
-    // Find expenses by user, category, month, and year
-    @Query("SELECT e FROM Expense e " +
-           "WHERE e.user.id = :userId " +
-           "AND e.category = :category " +
-           "AND MONTH(e.date) = :month " +
-           "AND YEAR(e.date) = :year")
-    List<Expense> findByUserIdAndCategoryAndMonth(@Param("userId") Long userId,
-                                                  @Param("category") String category,
-                                                  @Param("month") int month,
-                                                  @Param("year") int year);
+    // Filtered / sorted / keyset listing: ExpenseSpecifications + findSummaries (ExpenseRepositoryCustom)
 
     // Get category breakdown for admin reports
     @Query("SELECT e.category, COALESCE(SUM(e.amount), 0) " +
@@ -0,0 +1,14 @@
+package com.expensemate.expensemate_backend.repository;
+
+import com.expensemate.expensemate_backend.dto.ExpenseSummaryDto;
+import com.expensemate.expensemate_backend.model.Expense;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ExpenseRepositoryCustom {
+
+    // Specification query that selects straight into ExpenseSummaryDto (no entity hydration)
+    List<ExpenseSummaryDto> findSummaries(Specification<Expense> spec, Sort sort, long offset, int limit);
+}
@@ -0,0 +1,44 @@
+package com.expensemate.expensemate_backend.repository;
+
+import com.expensemate.expensemate_backend.dto.ExpenseSummaryDto;
+import com.expensemate.expensemate_backend.model.Expense;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+// Spring Data picks this up as the implementation of ExpenseRepositoryCustom
+public class ExpenseRepositoryImpl implements ExpenseRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ExpenseSummaryDto> findSummaries(Specification<Expense> spec, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ExpenseSummaryDto> query = cb.createQuery(ExpenseSummaryDto.class);
+        Root<Expense> root = query.from(Expense.class);
+
+        query.select(cb.construct(ExpenseSummaryDto.class,
+                root.get("id"),
+                root.get("amount"),
+                root.get("category"),
+                root.get("description"),
+                root.get("date"),
+                root.get("flagged"),
+                root.get("user").get("id")));
+        query.where(spec.toPredicate(root, query, cb));
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,62 @@
+package com.expensemate.expensemate_backend.repository;
+
+import com.expensemate.expensemate_backend.dto.ExpenseFilter;
+import com.expensemate.expensemate_backend.model.Expense;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Criteria building blocks for expense listing. The user_id predicate always comes first so the
+// (user_id, date) / (user_id, category, date) indexes can drive the query.
+public final class ExpenseSpecifications {
+
+    private ExpenseSpecifications() {
+    }
+
+    public static Specification<Expense> forUser(Long userId, ExpenseFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("user").get("id"), userId));
+
+            if (filter.getCategories() != null && !filter.getCategories().isEmpty()) {
+                predicates.add(root.get("category").in(filter.getCategories()));
+            }
+            if (filter.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("date"), filter.getFrom()));
+            }
+            if (filter.getTo() != null) {
+                // Half-open upper bound keeps the range sargable
+                predicates.add(cb.lessThan(root.get("date"), filter.getTo().plusDays(1)));
+            }
+            if (filter.getMinAmount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("amount"), filter.getMinAmount()));
+            }
+            if (filter.getMaxAmount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("amount"), filter.getMaxAmount()));
+            }
+            if (filter.getFlagged() != null) {
+                predicates.add(cb.equal(root.get("flagged"), filter.getFlagged()));
+            }
+            if (filter.getDescriptionPrefix() != null && !filter.getDescriptionPrefix().isBlank()) {
+                predicates.add(cb.like(root.get("description"),
+                        escapeLike(filter.getDescriptionPrefix()) + "%", '\\'));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Keyset seek: rows strictly after the (date, id) cursor in (date desc, id desc) order
+    public static Specification<Expense> beforeCursor(LocalDate date, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("date"), date),
+                cb.and(cb.equal(root.get("date"), date), cb.lessThan(root.get("id"), id)));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
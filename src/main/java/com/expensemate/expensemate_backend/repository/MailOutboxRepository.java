@@ -0,0 +1,39 @@
+package com.expensemate.expensemate_backend.repository;
+
+import com.expensemate.expensemate_backend.model.MailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    // Lock a batch of due messages (or ones whose sender's lease ran out).
+    // SKIP LOCKED lets several workers/nodes claim disjoint batches without waiting on each other.
+    @Query(value = "SELECT id FROM mail_outbox " +
+                   "WHERE ((status = 'PENDING' AND next_attempt_at <= :now) " +
+                   "    OR (status = 'SENDING' AND locked_until < :now)) " +
+                   "  AND (expires_at IS NULL OR expires_at > :now) " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Long> lockDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE MailOutbox m SET m.status = com.expensemate.expensemate_backend.model.MailOutbox.Status.SENDING, " +
+           "m.lockedUntil = :leaseUntil, m.attempts = m.attempts + 1 WHERE m.id IN :ids")
+    int markSending(@Param("ids") List<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Expired messages (sent ones are already gone); rows a worker is still sending are left to it
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM mail_outbox WHERE expires_at <= :now " +
+                   "AND (status <> 'SENDING' OR locked_until < :now)",
+           nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,69 @@
+package com.expensemate.expensemate_backend.repository;
+
+import com.expensemate.expensemate_backend.model.MonthlySpending;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MonthlySpendingRepository extends JpaRepository<MonthlySpending, Long> {
+
+    // Atomically add a delta to a (user, year, month, category) row, creating it on first use
+    @Modifying
+    @Query(value = "INSERT INTO monthly_spending (user_id, year, month, category, total, expense_count) " +
+                   "VALUES (:userId, :year, :month, :category, :amount, :count) " +
+                   "ON DUPLICATE KEY UPDATE total = total + :amount, expense_count = expense_count + :count",
+           nativeQuery = true)
+    void upsertDelta(@Param("userId") Long userId,
+                     @Param("year") int year,
+                     @Param("month") int month,
+                     @Param("category") String category,
+                     @Param("amount") double amount,
+                     @Param("count") long count);
+
+    // Total spent by a user in a month
+    @Query("SELECT COALESCE(SUM(s.total), 0) FROM MonthlySpending s " +
+           "WHERE s.userId = :userId AND s.year = :year AND s.month = :month")
+    double sumTotalForUserAndMonth(@Param("userId") Long userId,
+                                   @Param("month") int month,
+                                   @Param("year") int year);
+
+    // Total spent by a user in a month for one category
+    @Query("SELECT COALESCE(SUM(s.total), 0) FROM MonthlySpending s " +
+           "WHERE s.userId = :userId AND s.year = :year AND s.month = :month AND s.category = :category")
+    double sumTotalForCategory(@Param("userId") Long userId,
+                               @Param("category") String category,
+                               @Param("month") int month,
+                               @Param("year") int year);
+
+    // Rows for a month (one per category)
+    @Query("SELECT s FROM MonthlySpending s " +
+           "WHERE s.userId = :userId AND s.year = :year AND s.month = :month AND s.expenseCount > 0")
+    List<MonthlySpending> findForUserAndMonth(@Param("userId") Long userId,
+                                              @Param("month") int month,
+                                              @Param("year") int year);
+
+    // Rows for a whole year (used by annual reports)
+    @Query("SELECT s FROM MonthlySpending s " +
+           "WHERE s.userId = :userId AND s.year = :year AND s.expenseCount > 0")
+    List<MonthlySpending> findForUserAndYear(@Param("userId") Long userId,
+                                             @Param("year") int year);
+
+    // Rebuild every rollup row from the expenses table (backfill / repair). Existing rows are
+    // overwritten with the recomputed sums, so running it twice (e.g. two nodes starting) is harmless.
+    @Modifying
+    @Query(value = "INSERT INTO monthly_spending (user_id, year, month, category, total, expense_count) " +
+                   "SELECT * FROM (" +
+                   "  SELECT e.user_id, YEAR(e.date) AS y, MONTH(e.date) AS m, COALESCE(e.category, '') AS c, " +
+                   "         SUM(e.amount) AS sum_total, COUNT(*) AS cnt " +
+                   "  FROM expenses e WHERE e.user_id IS NOT NULL AND e.date IS NOT NULL " +
+                   "  GROUP BY e.user_id, YEAR(e.date), MONTH(e.date), COALESCE(e.category, '')" +
+                   ") AS t " +
+                   "ON DUPLICATE KEY UPDATE total = t.sum_total, expense_count = t.cnt",
+           nativeQuery = true)
+    int rebuildFromExpenses();
+}
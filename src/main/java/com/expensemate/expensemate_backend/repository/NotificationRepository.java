@@ -2,29 +2,89 @@ package com.expensemate.expensemate_backend.repository;
 
 import com.expensemate.expensemate_backend.model.Notification;
 import com.expensemate.expensemate_backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
     // Fetch all notifications for a specific user, sorted by newest first
-    List<Notification> findByUserOrderByCreatedAtDesc(User user);
+    List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    // First keyset page of the feed
+    List<Notification> findByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+
+    // Keyset page: notifications strictly after (createdAt, id) in newest-first order
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageBefore(@Param("userId") Long userId,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") long id,
+                                      Pageable pageable);
+
+    // Unread personal notifications (initialises the cached counter)
+    long countByUserIdAndReadFalse(Long userId);
+
+    // Latest few notifications for a user (duplicate checks)
+    List<Notification> findTop5ByUserIdOrderByCreatedAtDesc(Long userId);
 
     // Fetch only unread notifications for a user (sorted by newest first)
-    List<Notification> findByUserAndReadFalseOrderByCreatedAtDesc(User user);
+    List<Notification> findByUserIdAndReadFalseOrderByCreatedAtDesc(Long userId);
 
     // Fetch all notifications for a user (unsorted)
-    List<Notification> findByUser(User user);
+    List<Notification> findByUserId(Long userId);
+
+    Optional<Notification> findByIdAndUserId(Long id, Long userId);
+
+    // Mark one notification as read if it belongs to the user; 0 when not theirs or already read
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.id = :id AND n.user.id = :userId AND n.read = false")
+    int markAsRead(@Param("id") Long id, @Param("userId") Long userId);
 
     // Mark all notifications as read for a specific user (optimized bulk update)
     @Transactional
     @Modifying
-    @Query("UPDATE Notification n SET n.read = true WHERE n.user = :user AND n.read = false")
-    void markAllAsRead(User user);
+    @Query("UPDATE Notification n SET n.read = true WHERE n.user.id = :userId AND n.read = false")
+    int markAllAsRead(@Param("userId") Long userId);
+
+    // Mark the user's notifications among `ids` as read; ids of other users are ignored
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true " +
+           "WHERE n.user.id = :userId AND n.id IN :ids AND n.read = false")
+    int markAsReadByIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // Mark notifications at or after (createdAt, id) in newest-first order, i.e. that one and older
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.user.id = :userId AND n.read = false " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id <= :id))")
+    int markAsReadUpTo(@Param("userId") Long userId,
+                       @Param("createdAt") LocalDateTime createdAt,
+                       @Param("id") long id);
+
+    // Insert one notification per user with id in [fromId, toId] in a single statement.
+    // Returns the number of rows written.
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO notifications (message, is_read, created_at, user_id) " +
+                   "SELECT :message, false, :createdAt, u.id FROM users u " +
+                   "WHERE u.id BETWEEN :fromId AND :toId",
+           nativeQuery = true)
+    int insertForUserRange(@Param("message") String message,
+                           @Param("createdAt") LocalDateTime createdAt,
+                           @Param("fromId") long fromId,
+                           @Param("toId") long toId);
 
     // Delete all notifications for a user (useful for cleanup)
     @Transactional
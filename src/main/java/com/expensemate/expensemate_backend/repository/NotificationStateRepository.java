@@ -0,0 +1,59 @@
+package com.expensemate.expensemate_backend.repository;
+
+import com.expensemate.expensemate_backend.model.NotificationState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface NotificationStateRepository extends JpaRepository<NotificationState, Long> {
+
+    // Raise a user's broadcast read watermark (never lowers it), creating the row on first read
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO notification_state (user_id, broadcast_read_up_to) VALUES (:userId, :upTo) " +
+                   "ON DUPLICATE KEY UPDATE broadcast_read_up_to = GREATEST(broadcast_read_up_to, :upTo)",
+           nativeQuery = true)
+    void raiseBroadcastWatermark(@Param("userId") Long userId, @Param("upTo") long upTo);
+
+    // Adjust a user's unread counter; a counter that was never initialised stays null
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE notification_state SET unread_count = unread_count + :delta " +
+                   "WHERE user_id = :userId AND unread_count IS NOT NULL",
+           nativeQuery = true)
+    void addUnread(@Param("userId") Long userId, @Param("delta") long delta);
+
+    // Same as addUnread(+1) for every user with id in [fromId, toId] (global fan-out chunks)
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE notification_state SET unread_count = unread_count + 1 " +
+                   "WHERE user_id BETWEEN :fromId AND :toId AND unread_count IS NOT NULL",
+           nativeQuery = true)
+    void incrementUnreadForUserRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO notification_state (user_id, broadcast_read_up_to, unread_count) VALUES (:userId, 0, 0) " +
+                   "ON DUPLICATE KEY UPDATE unread_count = 0",
+           nativeQuery = true)
+    void resetUnread(@Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO notification_state (user_id, broadcast_read_up_to) VALUES (:userId, 0)",
+           nativeQuery = true)
+    void insertIfAbsent(@Param("userId") Long userId);
+
+    // Locks the row so concurrent counter updates wait until the counter is initialised
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM NotificationState s WHERE s.userId = :userId")
+    Optional<NotificationState> findForUpdate(@Param("userId") Long userId);
+}
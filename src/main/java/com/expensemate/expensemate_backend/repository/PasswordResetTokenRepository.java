@@ -3,6 +3,10 @@ package com.expensemate.expensemate_backend.repository;
 
 import com.expensemate.expensemate_backend.model.PasswordResetToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -10,5 +14,10 @@ public interface PasswordResetTokenRepository extends JpaRepository<PasswordRese
     Optional<PasswordResetToken> findByEmail(String email);
     Optional<PasswordResetToken> findByEmailAndOtp(String email, String otp);
     void deleteByEmail(String email); // clear old OTPs when generating new one
-}
 
+    // Batch purge of expired OTPs (JpaOtpStore)
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PasswordResetToken t WHERE t.expirationTime < :now")
+    int deleteExpired(@Param("now") long now);
+}
@@ -0,0 +1,48 @@
+package com.expensemate.expensemate_backend.repository;
+
+import com.expensemate.expensemate_backend.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    // Raise a user's watermark (never lowers it), creating the row on first revocation
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO token_revocations (user_id, revoked_before) VALUES (:userId, :revokedBefore) " +
+                   "ON DUPLICATE KEY UPDATE revoked_before = GREATEST(revoked_before, :revokedBefore)",
+           nativeQuery = true)
+    void raiseWatermark(@Param("userId") Long userId, @Param("revokedBefore") long revokedBefore);
+
+    // Cover users that were deactivated before watermarks existed (existing rows are kept)
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO token_revocations (user_id, revoked_before) " +
+                   "SELECT u.id, UNIX_TIMESTAMP() * 1000 FROM users u WHERE u.active = false",
+           nativeQuery = true)
+    int revokeInactiveUsers();
+
+    // Watermarks were stored in epoch seconds before they moved to millis (no-op once converted)
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE token_revocations SET revoked_before = revoked_before * 1000 " +
+                   "WHERE revoked_before < 100000000000",
+           nativeQuery = true)
+    int convertSecondWatermarksToMillis();
+
+    // Watermarks that can still reject a live token
+    List<TokenRevocation> findByRevokedBeforeGreaterThan(long since);
+
+    // Watermarks older than the longest token lifetime no longer matter
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TokenRevocation r WHERE r.revokedBefore <= :since")
+    int deleteExpired(@Param("since") long since);
+}
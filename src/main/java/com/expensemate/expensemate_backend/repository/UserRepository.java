@@ -27,4 +27,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT COUNT(DISTINCT e.user.id) FROM Expense e WHERE e.date >= :since")
     long countActiveUsers(@Param("since") LocalDate since);
 
+    @Query("SELECT MIN(u.id) FROM User u")
+    Long findMinId();
+
+    @Query("SELECT MAX(u.id) FROM User u")
+    Long findMaxId();
+
 }
@@ -0,0 +1,64 @@
+package com.expensemate.expensemate_backend.security;
+
+import com.expensemate.expensemate_backend.model.User;
+import com.expensemate.expensemate_backend.repository.UserRepository;
+import com.expensemate.expensemate_backend.service.UserDetailsImpl;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Login provider that reads the user row once and checks the password against it.
+ *
+ * The returned authentication carries a {@link UserDetailsImpl} wrapping that same row,
+ * so the login endpoint can mint the JWT without looking the user up again.
+ * Always goes to the database (not the user cache) so a just-changed password applies at once.
+ * Hashes made with a lower BCrypt cost than configured are transparently re-encoded here.
+ */
+public class EmailPasswordAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String BAD_CREDENTIALS = "Invalid credentials. Please check your email and password.";
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    public EmailPasswordAuthenticationProvider(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String email = authentication.getName() != null ? authentication.getName().toLowerCase() : "";
+        Object credentials = authentication.getCredentials();
+
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new BadCredentialsException(BAD_CREDENTIALS));
+
+        if (!user.isActive()) {
+            throw new DisabledException("User account is deactivated. Please contact admin.");
+        }
+
+        if (credentials == null || !passwordEncoder.matches(credentials.toString(), user.getPassword())) {
+            throw new BadCredentialsException(BAD_CREDENTIALS);
+        }
+
+        // The BCrypt cost was raised since this hash was made: rehash while we have the raw password
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(credentials.toString()));
+            user = userRepository.save(user);
+        }
+
+        UserDetailsImpl userDetails = new UserDetailsImpl(user);
+        return UsernamePasswordAuthenticationToken.authenticated(userDetails, null, userDetails.getAuthorities());
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+}
@@ -1,10 +1,14 @@
 package com.expensemate.expensemate_backend.security;
 
+import com.expensemate.expensemate_backend.service.TokenRevocationService;
+import com.expensemate.expensemate_backend.service.UserDetailsImpl;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -13,16 +17,30 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // Only these take no token; the rest of /api/auth (profile, change-password) needs a live one
+    private static final Set<String> PUBLIC_PATHS = Set.of(
+            "/api/auth/register",
+            "/api/auth/login",
+            "/api/auth/forgot-password",
+            "/api/auth/reset-password");
+
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil,
+                                   UserDetailsService userDetailsService,
+                                   TokenRevocationService tokenRevocationService) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Override
@@ -33,7 +51,7 @@ protected void doFilterInternal(HttpServletRequest request,
     String path = request.getRequestURI();
 
     // Skip JWT validation for public endpoints
-    if (path.startsWith("/api/auth/") || path.startsWith("/api/password/")) {
+    if (PUBLIC_PATHS.contains(path)) {
         chain.doFilter(request, response);
         return;
     }
@@ -44,29 +62,34 @@ protected void doFilterInternal(HttpServletRequest request,
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
 
-            // Extract email and normalize
-            String email = jwtUtil.extractUsername(token);
-            if (email != null) {
-                email = email.toLowerCase();
-            }
+            // Verify signature + expiry once; everything below reads the parsed claims
+            JwtPrincipal claims = jwtUtil.parseToken(token);
+            String email = claims.email();
 
-            // Proceed only if not already authenticated
-            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-
-                // Validate token
-                if (jwtUtil.validateToken(token, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities()
-                            );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+            // Deactivated users / admin password resets: rejected from memory, no DB lookup
+            if (tokenRevocationService.isRevoked(claims)) {
+                System.out.println("JWT revoked for user: " + email);
+            } else if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                JwtPrincipal principal = claims;
+                Collection<? extends GrantedAuthority> authorities;
+
+                if (claims.userId() != null && claims.role() != null) {
+                    // Current tokens carry id + role, which is all authorization needs
+                    authorities = List.of(new SimpleGrantedAuthority(claims.role()));
                 } else {
-                    System.out.println("JWT validation failed for user: " + email);
+                    // Older tokens carry only the subject; fill the rest from the (cached) user record
+                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                    if (userDetails instanceof UserDetailsImpl user) {
+                        principal = new JwtPrincipal(user.getId(), email, user.getRoleName(),
+                                user.getUser().getUsername(), claims.issuedAt(), claims.expiresAt());
+                    }
+                    authorities = userDetails.getAuthorities();
                 }
+
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(principal, null, authorities);
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
     } catch (Exception e) {
@@ -0,0 +1,23 @@
+package com.expensemate.expensemate_backend.security;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * Claims of a verified JWT, placed in the security context by {@link JwtAuthenticationFilter}.
+ *
+ * The token is parsed and its signature checked once per request; controllers read the
+ * user id from here via {@code @AuthenticationPrincipal} instead of re-parsing the header.
+ */
+public record JwtPrincipal(Long userId,
+                           String email,
+                           String role,
+                           String username,
+                           Instant issuedAt,
+                           Instant expiresAt) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,30 +1,58 @@
 package com.expensemate.expensemate_backend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import jakarta.servlet.http.HttpServletRequest; // ✅ Import for HttpServletRequest
-
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
 
 @Component
 public class JwtUtil {
 
+    // `iat` is whole seconds; revocation watermarks need the exact issue time
+    static final String ISSUED_AT_MILLIS = "iatMs";
+
     private final String secret;
     private final long expirationTime;
     private final Key key;
+    private final JwtParser parser;
+
+    // Already-verified tokens by SHA-256 digest, each kept only until its own `exp`.
+    // A hit skips HMAC verification and claim decoding; the raw token is never stored.
+    private final Cache<String, JwtPrincipal> verifiedTokens;
 
     public JwtUtil(
             @Value("${app.jwt.secret}") String secret,
-            @Value("${app.jwt.expiration}") long expirationTime) {
+            @Value("${app.jwt.expiration}") long expirationTime,
+            @Value("${app.jwt.cache.max-size}") long cacheMaxSize,
+            MeterRegistry meterRegistry) {
         this.secret = secret;
         this.expirationTime = expirationTime;
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+
+        // cache.gets{result=hit|miss}, cache.size, cache.evictions tagged cache=jwt.verified-tokens
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified-tokens");
     }
 
     // ✅ Generate token with extra claims (userId + role + username)
@@ -33,103 +61,91 @@ public class JwtUtil {
         claims.put("userId", userId);
         claims.put("role", role);
         claims.put("username", username);
+        long now = System.currentTimeMillis();
+        claims.put(ISSUED_AT_MILLIS, now);
 
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(email) // email as subject
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expirationTime))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     // ✅ Backward-compatible: generate token with just username
     public String generateToken(String username) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
+                .claim(ISSUED_AT_MILLIS, now)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expirationTime))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    // ✅ Extract email/username (subject)
-    public String extractUsername(String token) {
-        return extractAllClaims(token).getSubject();
-    }
+    // ✅ Verify signature + expiry once and return all claims as a principal.
+    // Throws JwtException (incl. ExpiredJwtException) when the token is not usable.
+    public JwtPrincipal parseToken(String token) {
+        String digest = digest(token);
+        JwtPrincipal cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return cached;
+        }
 
-    // ✅ Extract userId
-    public Long extractUserId(String token) {
-        Object userId = extractAllClaims(token).get("userId");
-        return userId != null ? Long.valueOf(userId.toString()) : null;
+        JwtPrincipal principal = toPrincipal(extractAllClaims(token));
+        if (principal.expiresAt() != null) {
+            verifiedTokens.put(digest, principal);
+        }
+        return principal;
     }
 
-    // ✅ Extract role
-    public String extractRole(String token) {
-        Object role = extractAllClaims(token).get("role");
-        return role != null ? role.toString() : null;
+    private JwtPrincipal toPrincipal(Claims claims) {
+        Object userId = claims.get("userId");
+        Object role = claims.get("role");
+        Object username = claims.get("username");
+        Object issuedAtMillis = claims.get(ISSUED_AT_MILLIS);
+        String email = claims.getSubject();
+        Instant issuedAt = issuedAtMillis != null ? Instant.ofEpochMilli(Long.parseLong(issuedAtMillis.toString()))
+                : claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null;
+        return new JwtPrincipal(
+                userId != null ? Long.valueOf(userId.toString()) : null,
+                email != null ? email.toLowerCase() : null,
+                role != null ? role.toString() : null,
+                username != null ? username.toString() : null,
+                issuedAt,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
     }
 
-    // ✅ Extract username
-    public String extractUsernameFromToken(String token) {
-        Object username = extractAllClaims(token).get("username");
-        return username != null ? username.toString() : null;
+    private Claims extractAllClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    // ✅ Validate token
-    public boolean validateToken(String token) {
+    private static String digest(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return !isTokenExpired(token);
-        } catch (JwtException e) {
-            return false;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
-    // ✅ Validate against UserDetails (Spring Security)
-    public boolean validateToken(String token, org.springframework.security.core.userdetails.UserDetails userDetails) {
-        String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        try {
-            Date expiration = extractAllClaims(token).getExpiration();
-            return expiration.before(new Date());
-        } catch (JwtException e) {
-            return true;
+    // Expire each cached entry exactly when its token does
+    private static class UntilTokenExpiry implements Expiry<String, JwtPrincipal> {
+        @Override
+        public long expireAfterCreate(String digest, JwtPrincipal principal, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), principal.expiresAt()).toNanos());
         }
-    }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
+        @Override
+        public long expireAfterUpdate(String digest, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, principal, currentTime);
+        }
 
-    // ✅ New method: Extract userId directly from HttpServletRequest
-    public Long extractUserIdFromRequest(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        System.out.println("JwtUtil: Authorization header: " + authHeader);
-        
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            System.out.println("JwtUtil: Extracted token: " + token.substring(0, Math.min(20, token.length())) + "...");
-            
-            try {
-                Long userId = extractUserId(token);
-                System.out.println("JwtUtil: Extracted userId: " + userId);
-                return userId;
-            } catch (Exception e) {
-                System.out.println("JwtUtil: Error extracting userId from token: " + e.getMessage());
-                e.printStackTrace();
-                return null;
-            }
+        @Override
+        public long expireAfterRead(String digest, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
         }
-        
-        System.out.println("JwtUtil: No valid Authorization header found");
-        return null;
     }
 }
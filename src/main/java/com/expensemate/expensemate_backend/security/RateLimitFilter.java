@@ -0,0 +1,244 @@
+package com.expensemate.expensemate_backend.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the credential and OTP endpoints by client IP and by target email.
+ *
+ * Runs ahead of {@link JwtAuthenticationFilter}. Over-limit requests get 429 with Retry-After
+ * before any controller, DB or SMTP work happens.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> LIMITED_PATHS = Set.of(
+            "/api/auth/login",
+            "/api/auth/forgot-password",
+            "/api/auth/reset-password");
+
+    // Bodies of these endpoints are tiny JSON objects; anything larger is refused with 413
+    private static final int MAX_BODY_BYTES = 8 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StripedRateLimiter ipLimiter;
+    private final StripedRateLimiter emailLimiter;
+    private final Counter ipRejected;
+    private final Counter emailRejected;
+
+    public RateLimitFilter(@Value("${app.rate-limit.stripes}") int stripes,
+                           @Value("${app.rate-limit.max-keys}") int maxKeys,
+                           @Value("${app.rate-limit.ip.capacity}") int ipCapacity,
+                           @Value("${app.rate-limit.ip.refill-per-minute}") int ipRefillPerMinute,
+                           @Value("${app.rate-limit.email.capacity}") int emailCapacity,
+                           @Value("${app.rate-limit.email.refill-per-minute}") int emailRefillPerMinute,
+                           MeterRegistry meterRegistry) {
+        this.ipLimiter = new StripedRateLimiter(stripes, maxKeys, ipCapacity, ipRefillPerMinute);
+        this.emailLimiter = new StripedRateLimiter(stripes, maxKeys, emailCapacity, emailRefillPerMinute);
+        this.ipRejected = rejectedCounter(meterRegistry, "ip");
+        this.emailRejected = rejectedCounter(meterRegistry, "email");
+        Gauge.builder("rate.limit.buckets", ipLimiter, StripedRateLimiter::size)
+                .tag("key", "ip").register(meterRegistry);
+        Gauge.builder("rate.limit.buckets", emailLimiter, StripedRateLimiter::size)
+                .tag("key", "email").register(meterRegistry);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String key) {
+        return Counter.builder("rate.limit.rejected")
+                .description("Auth/OTP requests refused with 429")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equalsIgnoreCase(request.getMethod()) || !LIMITED_PATHS.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String path = request.getRequestURI();
+
+        long waitNanos = ipLimiter.tryAcquire(path + "|" + request.getRemoteAddr());
+        if (waitNanos > 0) {
+            ipRejected.increment();
+            tooManyRequests(response, waitNanos);
+            return;
+        }
+
+        // Read whatever the Content-Length says (chunked bodies have none), so the email limit
+        // cannot be bypassed by the framing of the body
+        CachedBodyRequest cached = CachedBodyRequest.wrap(request);
+        if (cached == null) {
+            error(response, HttpStatus.PAYLOAD_TOO_LARGE.value(), Map.of("error", "Request body too large."));
+            return;
+        }
+        String email = readEmail(cached.body);
+        if (email != null) {
+            waitNanos = emailLimiter.tryAcquire(path + "|" + email);
+            if (waitNanos > 0) {
+                emailRejected.increment();
+                tooManyRequests(response, waitNanos);
+                return;
+            }
+        }
+
+        chain.doFilter(cached, response);
+    }
+
+    private String readEmail(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText().trim().toLowerCase() : null;
+        } catch (IOException | RuntimeException e) {
+            return null; // malformed body: the controller will reject it
+        }
+    }
+
+    private void tooManyRequests(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        error(response, HttpStatus.TOO_MANY_REQUESTS.value(),
+                Map.of("error", "Too many requests. Please try again later.",
+                        "retryAfterSeconds", retryAfterSeconds));
+    }
+
+    private void error(HttpServletResponse response, int status, Map<String, Object> body) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    // Request whose (small) body was read up front so it can be replayed to the controller
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        // Null when the body is larger than MAX_BODY_BYTES
+        static CachedBodyRequest wrap(HttpServletRequest request) throws IOException {
+            if (request.getContentLengthLong() > MAX_BODY_BYTES) {
+                return null;
+            }
+            byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+            return body.length > MAX_BODY_BYTES ? null : new CachedBodyRequest(request, body);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new CachedBodyInputStream(body);
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+
+    // Replays the cached body. The bytes are all in memory, so it is always ready, and a
+    // non-blocking reader is told about them at once and about the end when it reaches it.
+    private static final class CachedBodyInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream in;
+        private ReadListener listener;
+        private boolean allDataReadSignalled;
+
+        CachedBodyInputStream(byte[] body) {
+            this.in = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return afterRead(in.read());
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return afterRead(in.read(b, off, len));
+        }
+
+        @Override
+        public boolean isFinished() {
+            return in.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            if (readListener == null) {
+                throw new NullPointerException("readListener");
+            }
+            if (listener != null) {
+                throw new IllegalStateException("ReadListener already set");
+            }
+            listener = readListener;
+            try {
+                if (isFinished()) {
+                    signalAllDataRead();
+                } else {
+                    listener.onDataAvailable();
+                }
+            } catch (IOException e) {
+                listener.onError(e);
+            }
+        }
+
+        private int afterRead(int result) throws IOException {
+            if (listener != null && isFinished()) {
+                signalAllDataRead();
+            }
+            return result;
+        }
+
+        private void signalAllDataRead() throws IOException {
+            if (!allDataReadSignalled) {
+                allDataReadSignalled = true;
+                listener.onAllDataRead();
+            }
+        }
+    }
+}
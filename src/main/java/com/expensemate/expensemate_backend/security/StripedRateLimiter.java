@@ -0,0 +1,115 @@
+package com.expensemate.expensemate_backend.security;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process token-bucket limiter with lock striping and bounded memory.
+ *
+ * Keys hash onto a fixed number of stripes; each stripe has its own lock and an access-ordered
+ * map of buckets. Idle buckets (fully refilled, so forgetting them changes nothing) are dropped
+ * from the head of the map on every access, and each stripe also has a hard key cap, so memory
+ * stays constant however many distinct IPs/emails show up. A bucket still counting down is never
+ * evicted to make room: while a stripe is full of them, new keys are refused instead, so flooding
+ * the limiter with fresh keys cannot reset someone else's count.
+ */
+public class StripedRateLimiter {
+
+    private final Stripe[] stripes;
+    private final int maxKeysPerStripe;
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long idleNanos;
+
+    public StripedRateLimiter(int stripeCount, int maxKeys, int capacity, int refillPerMinute) {
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.maxKeysPerStripe = Math.max(1, maxKeys / stripeCount);
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        // After this long a bucket is full again and can be forgotten
+        this.idleNanos = (long) Math.ceil(capacity / tokensPerNano);
+    }
+
+    /**
+     * Takes one token for the key.
+     *
+     * @return 0 when allowed, otherwise the nanoseconds until a token becomes available
+     */
+    public long tryAcquire(String key) {
+        Stripe stripe = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+        long now = System.nanoTime();
+
+        stripe.lock.lock();
+        try {
+            stripe.evictIdle(now);
+
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                if (stripe.buckets.size() >= maxKeysPerStripe) {
+                    // Wait until the least recently used bucket has refilled and can be dropped
+                    Bucket eldest = stripe.buckets.values().iterator().next();
+                    return Math.max(1, idleNanos - (now - eldest.lastRefill));
+                }
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.lastRefill) * tokensPerNano);
+                bucket.lastRefill = now;
+            }
+
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // Number of buckets currently held (for metrics)
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.buckets.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long lastRefill;
+
+        Bucket(double tokens, long lastRefill) {
+            this.tokens = tokens;
+            this.lastRefill = lastRefill;
+        }
+    }
+
+    private final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+
+        // Access order: least recently used bucket first
+        final LinkedHashMap<String, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+
+        void evictIdle(long now) {
+            Iterator<Bucket> it = buckets.values().iterator();
+            while (it.hasNext()) {
+                if (now - it.next().lastRefill < idleNanos) {
+                    break;
+                }
+                it.remove();
+            }
+        }
+    }
+}
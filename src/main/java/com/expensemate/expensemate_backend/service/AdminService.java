@@ -1,7 +1,10 @@
 package com.expensemate.expensemate_backend.service;
 
+import com.expensemate.expensemate_backend.dto.ExpenseSummaryDto;
+import com.expensemate.expensemate_backend.dto.NotificationFanoutJobDto;
 import com.expensemate.expensemate_backend.model.*;
 import com.expensemate.expensemate_backend.repository.*;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
@@ -14,15 +17,27 @@ public class AdminService {
     private final ExpenseRepository expenseRepository;
     private final BudgetRepository budgetRepository;
     private final NotificationService notificationService;
+    private final SpendingRollupService spendingRollupService;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final NotificationFanoutService notificationFanoutService;
 
     public AdminService(UserRepository userRepository,
                         ExpenseRepository expenseRepository,
                         BudgetRepository budgetRepository,
-                        NotificationService notificationService) {
+                        NotificationService notificationService,
+                        SpendingRollupService spendingRollupService,
+                        UserDetailsServiceImpl userDetailsService,
+                        TokenRevocationService tokenRevocationService,
+                        NotificationFanoutService notificationFanoutService) {
         this.userRepository = userRepository;
         this.expenseRepository = expenseRepository;
         this.budgetRepository = budgetRepository;
         this.notificationService = notificationService;
+        this.spendingRollupService = spendingRollupService;
+        this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.notificationFanoutService = notificationFanoutService;
     }
 
     // --- Dashboard ---
@@ -31,7 +46,7 @@ public class AdminService {
         stats.put("totalUsers", userRepository.count());
         stats.put("totalExpenses", expenseRepository.count());
         stats.put("totalBudgets", budgetRepository.count());
-        stats.put("recentExpenses", expenseRepository.findTop10ByOrderByDateDesc());
+        stats.put("recentExpenses", expenseRepository.findRecentSummaries(PageRequest.of(0, 10)));
         return stats;
     }
 
@@ -46,6 +61,8 @@ public class AdminService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setActive(false);
         userRepository.save(user);
+        userDetailsService.evict(user.getEmail());
+        tokenRevocationService.revokeAllTokens(userId);
     }
 
     @Transactional
@@ -54,6 +71,7 @@ public class AdminService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setActive(true);
         userRepository.save(user);
+        userDetailsService.evict(user.getEmail());
     }
 
     @Transactional
@@ -62,15 +80,17 @@ public class AdminService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setPassword("{noop}default123"); // set default password or generate new
         userRepository.save(user);
+        userDetailsService.evict(user.getEmail());
+        tokenRevocationService.revokeAllTokens(userId);
     }
 
     // --- Expense Management ---
-    public List<Expense> getAllExpenses() {
-        return expenseRepository.findAll();
+    public List<ExpenseSummaryDto> getAllExpenses() {
+        return expenseRepository.findAllSummaries();
     }
 
-    public List<Expense> getFlaggedExpenses() {
-        return expenseRepository.findByFlaggedTrue();
+    public List<ExpenseSummaryDto> getFlaggedExpenses() {
+        return expenseRepository.findFlaggedSummaries();
     }
 
     @Transactional
@@ -94,6 +114,7 @@ public class AdminService {
         Expense expense = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new RuntimeException("Expense not found"));
         expenseRepository.delete(expense);
+        spendingRollupService.removeExpense(expense);
     }
 
     // --- Budget Summary ---
@@ -114,7 +135,7 @@ public class AdminService {
         long userCount = userRepository.count();
         long expenseCount = expenseRepository.count();
         long budgetCount = budgetRepository.count();
-        long flaggedCount = expenseRepository.findByFlaggedTrue().size();
+        long flaggedCount = expenseRepository.countByFlaggedTrue();
         
         System.out.println("📊 Basic counts - Users: " + userCount + ", Expenses: " + expenseCount + ", Budgets: " + budgetCount + ", Flagged: " + flaggedCount);
         
@@ -133,7 +154,7 @@ public class AdminService {
         report.put("latestUsers", userRepository.findTop5ByOrderByCreatedAtDesc());
         
         // Recent expenses
-        report.put("recentExpenses", expenseRepository.findTop10ByOrderByDateDesc());
+        report.put("recentExpenses", expenseRepository.findRecentSummaries(PageRequest.of(0, 10)));
         
         // Category breakdown
         System.out.println("📊 Getting category breakdown...");
@@ -165,14 +186,24 @@ public class AdminService {
     }
 
     // --- Notifications ---
-    public void sendGlobalNotification(String message) {
+    // One broadcast row, whatever the number of users
+    public BroadcastNotification sendGlobalNotification(String message) {
         System.out.println("🔔 AdminService: Sending global notification: " + message);
-        try {
-            notificationService.sendGlobalNotification(message);
-            System.out.println("✅ AdminService: Global notification sent successfully");
-        } catch (Exception e) {
-            System.out.println("❌ AdminService: Error sending global notification: " + e.getMessage());
-            throw e;
-        }
+        return notificationService.sendBroadcast(message + " by admin");
+    }
+
+    // Legacy delivery: one notifications row per user, written by a background job;
+    // progress is available from getGlobalNotificationJob
+    public NotificationFanoutJobDto fanOutGlobalNotification(String message) {
+        System.out.println("🔔 AdminService: Fanning out global notification: " + message);
+        return notificationFanoutService.start(message + " by admin");
+    }
+
+    public Optional<NotificationFanoutJobDto> getGlobalNotificationJob(String jobId) {
+        return notificationFanoutService.getJob(jobId);
+    }
+
+    public Optional<NotificationFanoutJobDto> cancelGlobalNotificationJob(String jobId) {
+        return notificationFanoutService.cancel(jobId);
     }
 }
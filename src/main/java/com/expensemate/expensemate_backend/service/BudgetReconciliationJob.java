@@ -0,0 +1,49 @@
+package com.expensemate.expensemate_backend.service;
+
+import com.expensemate.expensemate_backend.repository.BudgetRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Periodically recomputes {@code Budget.spent} from the expenses table and fixes counters
+ * that drifted (e.g. budgets created concurrently with an expense write).
+ *
+ * Budgets are processed in id-range chunks, each in its own short transaction.
+ */
+@Service
+public class BudgetReconciliationJob {
+
+    private final BudgetRepository budgetRepository;
+    private final long chunkSize;
+
+    public BudgetReconciliationJob(BudgetRepository budgetRepository,
+                                   @Value("${app.budget.reconcile.chunk-size}") long chunkSize) {
+        this.budgetRepository = budgetRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${app.budget.reconcile.cron}")
+    public void reconcileScheduled() {
+        reconcileAll();
+    }
+
+    // Returns the number of budgets whose counter was corrected
+    public int reconcileAll() {
+        Long minId = budgetRepository.findMinId();
+        Long maxId = budgetRepository.findMaxId();
+        if (minId == null || maxId == null) {
+            return 0;
+        }
+
+        int corrected = 0;
+        for (long from = minId; from <= maxId; from += chunkSize) {
+            corrected += budgetRepository.reconcileSpent(from, Math.min(from + chunkSize - 1, maxId));
+        }
+
+        if (corrected > 0) {
+            System.out.println("🧮 BudgetReconciliationJob: Corrected spent on " + corrected + " budgets");
+        }
+        return corrected;
+    }
+}
@@ -4,10 +4,13 @@ import com.expensemate.expensemate_backend.dto.BudgetDto;
 import com.expensemate.expensemate_backend.model.Budget;
 import com.expensemate.expensemate_backend.model.User;
 import com.expensemate.expensemate_backend.repository.BudgetRepository;
-import com.expensemate.expensemate_backend.repository.ExpenseRepository;
 import com.expensemate.expensemate_backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.TextStyle;
 import java.util.Locale;
@@ -18,17 +21,35 @@ public class BudgetService {
 
     private final BudgetRepository budgetRepository;
     private final UserRepository userRepository;
-    private final ExpenseRepository expenseRepository;
+    private final SpendingRollupService spendingRollupService;
     private final NotificationService notificationService;
 
+    // Budget amount per (userId, year, month); an empty Optional caches "no budget set"
+    private final Cache<BudgetKey, Optional<Double>> budgetAmountCache;
+
     public BudgetService(BudgetRepository budgetRepository,
                          UserRepository userRepository,
-                         ExpenseRepository expenseRepository,
-                         NotificationService notificationService) {
+                         SpendingRollupService spendingRollupService,
+                         NotificationService notificationService,
+                         @Value("${app.budget.cache.max-size}") long cacheMaxSize,
+                         @Value("${app.budget.cache.ttl-minutes}") long cacheTtlMinutes) {
         this.budgetRepository = budgetRepository;
         this.userRepository = userRepository;
-        this.expenseRepository = expenseRepository;
+        this.spendingRollupService = spendingRollupService;
         this.notificationService = notificationService;
+        this.budgetAmountCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .build();
+    }
+
+    private record BudgetKey(Long userId, int year, int month) {}
+
+    // ----------------- Cached Budget Lookup -----------------
+    public Optional<Double> findBudgetAmount(Long userId, int month, int year) {
+        return budgetAmountCache.get(new BudgetKey(userId, year, month),
+                key -> budgetRepository.findByUserIdAndMonthAndYear(userId, month, year)
+                        .map(Budget::getAmount));
     }
 
     // ----------------- Set or Create Budget -----------------
@@ -43,11 +64,11 @@ public class BudgetService {
 
     // ----------------- Get Budget Status -----------------
     public BudgetDto getBudgetStatus(Long userId, int month, int year) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Optional<Budget> optionalBudget = budgetRepository.findByUserAndMonthAndYear(user, month, year);
-        double totalSpent = expenseRepository.sumExpensesForUserAndMonth(userId, month, year);
+        // Budget.spent is kept current by SpendingRollupService, so one row answers the whole status
+        Optional<Budget> optionalBudget = budgetRepository.findByUserIdAndMonthAndYear(userId, month, year);
+        double totalSpent = optionalBudget
+                .map(b -> b.getSpent() != null ? b.getSpent() : 0.0)
+                .orElseGet(() -> spendingRollupService.getMonthlyTotal(userId, month, year));
 
         BudgetDto dto = new BudgetDto();
         dto.setMonth(month);
@@ -94,10 +115,16 @@ public class BudgetService {
                 .year(year)
                 .build());
 
+        double totalSpent = spendingRollupService.getMonthlyTotal(userId, month, year);
+
+        // Seed the running counter for new (or never-maintained) budgets
+        if (budget.getId() == null || budget.getSpent() == null) {
+            budget.setSpent(totalSpent);
+        }
+
         budget.setAmount(dto.getAmount());
         Budget saved = budgetRepository.save(budget);
-
-        double totalSpent = expenseRepository.sumExpensesForUserAndMonth(userId, month, year);
+        budgetAmountCache.invalidate(new BudgetKey(userId, year, month));
 
         // 🔔 Optional: Send overspending notification
         if (dto.getAmount() > 0 && totalSpent > dto.getAmount()) {
@@ -1,29 +1,76 @@
 package com.expensemate.expensemate_backend.service;
 
+import com.expensemate.expensemate_backend.model.MailOutbox;
+import com.expensemate.expensemate_backend.repository.MailOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.event.EventListener;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
 
 @Service
 public class EmailService {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private MailOutboxWorker mailOutboxWorker;
 
-    // Send OTP after transaction commits
-    @TransactionalEventListener
+    @Value("${app.otp.ttl-seconds}")
+    private long otpTtlSeconds;
+
+    // Queue the OTP mail inside the OTP transaction; SMTP happens on the mail workers.
+    // The row expires with the OTP, so the code is never mailed late or kept in the outbox.
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleOtpEvent(OtpGeneratedEvent event) {
-        sendOtpEmail(event.getEmail(), event.getOtp());
+        enqueue(event.getEmail(),
+                "ExpenseMate Password Reset OTP",
+                "Your OTP is: " + event.getOtp() + "\nValid for " + describeTtl(otpTtlSeconds) + ".",
+                LocalDateTime.now().plusSeconds(otpTtlSeconds));
+    }
+
+    // Insert an outbox row in the caller's transaction and wake the worker once it commits
+    public void enqueue(String to, String subject, String body) {
+        enqueue(to, subject, body, null);
+    }
+
+    // Same, for mail that is useless after `expiresAt`
+    public void enqueue(String to, String subject, String body, LocalDateTime expiresAt) {
+        LocalDateTime now = LocalDateTime.now();
+        mailOutboxRepository.save(MailOutbox.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(body)
+                .status(MailOutbox.Status.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .expiresAt(expiresAt)
+                .createdAt(now)
+                .build());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    mailOutboxWorker.wakeUp();
+                }
+            });
+        } else {
+            mailOutboxWorker.wakeUp();
+        }
     }
 
-    private void sendOtpEmail(String to, String otp) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject("ExpenseMate Password Reset OTP");
-        message.setText("Your OTP is: " + otp + "\nValid for 10 minutes.");
-        mailSender.send(message);
+    // "10 minutes", "1 minute", "90 seconds"
+    static String describeTtl(long seconds) {
+        if (seconds % 60 == 0) {
+            long minutes = seconds / 60;
+            return minutes + (minutes == 1 ? " minute" : " minutes");
+        }
+        return seconds + (seconds == 1 ? " second" : " seconds");
     }
 }
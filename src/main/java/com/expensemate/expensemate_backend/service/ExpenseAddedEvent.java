@@ -0,0 +1,24 @@
+package com.expensemate.expensemate_backend.service;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.LocalDate;
+
+@Getter
+public class ExpenseAddedEvent extends ApplicationEvent {
+    private final Long userId;
+    private final Long expenseId;
+    private final double amount;
+    private final String category;
+    private final LocalDate date;
+
+    public ExpenseAddedEvent(Object source, Long userId, Long expenseId, double amount, String category, LocalDate date) {
+        super(source);
+        this.userId = userId;
+        this.expenseId = expenseId;
+        this.amount = amount;
+        this.category = category;
+        this.date = date;
+    }
+}
@@ -0,0 +1,92 @@
+package com.expensemate.expensemate_backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Runs the side effects of a new expense (notifications and budget alerts) after the
+ * expense transaction commits, on the bounded {@code expenseEventExecutor}.
+ */
+@Service
+public class ExpenseEventHandler {
+
+    private final NotificationService notificationService;
+    private final BudgetService budgetService;
+    private final SpendingRollupService spendingRollupService;
+
+    private final Timer lagTimer;
+    private final Timer processingTimer;
+    private final Counter failedCounter;
+
+    public ExpenseEventHandler(NotificationService notificationService,
+                               BudgetService budgetService,
+                               SpendingRollupService spendingRollupService,
+                               MeterRegistry meterRegistry) {
+        this.notificationService = notificationService;
+        this.budgetService = budgetService;
+        this.spendingRollupService = spendingRollupService;
+        // Measured from ApplicationEvent's timestamp, i.e. publish inside the expense transaction:
+        // includes the rest of that transaction as well as the executor queue wait
+        this.lagTimer = Timer.builder("expense.events.publish-to-handle")
+                .description("Time from event publish to side-effect processing start")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.processingTimer = Timer.builder("expense.events.processing")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("expense.events.failed").register(meterRegistry);
+    }
+
+    @Async("expenseEventExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleExpenseAdded(ExpenseAddedEvent event) {
+        lagTimer.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - event.getTimestamp())));
+        processingTimer.record(() -> {
+            try {
+                process(event);
+            } catch (Exception e) {
+                failedCounter.increment();
+                System.out.println("❌ ExpenseEventHandler: Failed for expense " + event.getExpenseId() + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private void process(ExpenseAddedEvent event) {
+        Long userId = event.getUserId();
+        int month = event.getDate().getMonthValue();
+        int year = event.getDate().getYear();
+
+        // ✅ Trigger notification for new expense
+        notificationService.notifyExpenseAdded(userId, event.getAmount(), event.getCategory());
+
+        checkBudgetLimit(userId, event.getCategory(), month, year);
+    }
+
+    // ---------------- Budget limit checks ----------------
+    // Also called by ExpenseImportService once per touched (month, category) after a bulk import
+    public void checkBudgetLimit(Long userId, String category, int month, int year) {
+        Optional<Double> budgetAmount = budgetService.findBudgetAmount(userId, month, year);
+
+        if (budgetAmount.isPresent()) {
+            double limit = budgetAmount.get();
+
+            double totalSpent = spendingRollupService.getCategoryTotal(userId, category, month, year);
+
+            double percentSpent = (totalSpent / limit) * 100;
+
+            if (totalSpent > limit) {
+                notificationService.notifyBudgetExceeded(userId, category);
+            } else if (percentSpent >= 80) {
+                notificationService.notifyBudgetNearingLimit(userId, category, percentSpent);
+            }
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.expensemate.expensemate_backend.service;
+
+import com.expensemate.expensemate_backend.dto.ExpenseDto;
+import com.expensemate.expensemate_backend.dto.ExpenseImportResultDto;
+import com.expensemate.expensemate_backend.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming bulk import of expenses from CSV or a JSON array.
+ *
+ * Rows are parsed one at a time and written with JDBC batch inserts; each batch commits together
+ * with its rollup/budget deltas. Memory use is bounded by the batch size, not the file size.
+ * Budget alerts run once per touched (month, category) after the last batch, instead of per row.
+ */
+@Service
+public class ExpenseImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("date", "amount");
+
+    private static final String INSERT_SQL =
+            "INSERT INTO expenses (amount, category, description, date, flagged, user_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final UserRepository userRepository;
+    private final SpendingRollupService spendingRollupService;
+    private final NotificationService notificationService;
+    private final ExpenseEventHandler expenseEventHandler;
+    private final int batchSize;
+
+    public ExpenseImportService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper,
+                                UserRepository userRepository,
+                                SpendingRollupService spendingRollupService,
+                                NotificationService notificationService,
+                                ExpenseEventHandler expenseEventHandler,
+                                @Value("${app.expenses.import.batch-size}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.userRepository = userRepository;
+        this.spendingRollupService = spendingRollupService;
+        this.notificationService = notificationService;
+        this.expenseEventHandler = expenseEventHandler;
+        this.batchSize = batchSize;
+    }
+
+    // ----------------- Entry Points -----------------
+
+    // A header row without the required columns ends the import with an error (the controller answers 400)
+    public ExpenseImportResultDto importCsv(Long userId, InputStream in) throws IOException {
+        ImportRun run = start(userId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        // Default column order; overridden by a header row if present
+        Map<String, Integer> columns = Map.of("date", 0, "amount", 1, "category", 2, "description", 3);
+        String line;
+        long rowNumber = 0;
+        boolean firstContentLine = true;
+        while ((line = reader.readLine()) != null) {
+            rowNumber++;
+            line = stripBom(line);
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = parseCsvLine(line);
+            // The header is the first non-blank line, wherever it falls in the file
+            if (firstContentLine) {
+                firstContentLine = false;
+                if (isHeader(fields)) {
+                    columns = headerColumns(fields);
+                    List<String> missing = new ArrayList<>();
+                    for (String required : REQUIRED_CSV_COLUMNS) {
+                        if (!columns.containsKey(required)) {
+                            missing.add(required);
+                        }
+                    }
+                    if (!missing.isEmpty()) {
+                        return run.finish("CSV header is missing required column(s): " + String.join(", ", missing));
+                    }
+                    continue;
+                }
+            }
+            try {
+                ExpenseDto dto = new ExpenseDto();
+                dto.setDate(parseDate(field(fields, columns, "date")));
+                dto.setAmount(parseAmount(field(fields, columns, "amount")));
+                dto.setCategory(field(fields, columns, "category"));
+                dto.setDescription(field(fields, columns, "description"));
+                run.add(dto);
+            } catch (IllegalArgumentException e) {
+                run.reject(rowNumber, e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    // A body that is not a JSON array, or malformed JSON part-way through, ends the import: rows read
+    // before that point are kept and the result carries the error (the controller answers 400).
+    public ExpenseImportResultDto importJson(Long userId, InputStream in) throws IOException {
+        ImportRun run = start(userId);
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return run.finish("Expected a JSON array of expenses");
+            }
+            long rowNumber = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    return run.finish("Unexpected end of JSON input");
+                }
+                rowNumber++;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    run.reject(rowNumber, "expected a JSON object");
+                    continue;
+                }
+                JsonNode node = objectMapper.readTree(parser);
+                try {
+                    ExpenseDto dto = new ExpenseDto();
+                    dto.setDate(parseDate(text(node, "date")));
+                    dto.setAmount(parseAmount(text(node, "amount")));
+                    dto.setCategory(text(node, "category"));
+                    dto.setDescription(text(node, "description"));
+                    run.add(dto);
+                } catch (IllegalArgumentException e) {
+                    run.reject(rowNumber, e.getMessage());
+                }
+            }
+        } catch (JsonProcessingException e) {
+            return run.finish("Malformed JSON: " + e.getOriginalMessage()
+                    + (e.getLocation() != null ? " at line " + e.getLocation().getLineNr() : ""));
+        }
+        return run.finish();
+    }
+
+    private ImportRun start(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+        return new ImportRun(userId);
+    }
+
+    // ----------------- Batch Writer -----------------
+
+    // A (month, category) bucket touched by committed rows; each gets one budget check at the end
+    private record Bucket(int year, int month, String category) {
+    }
+
+    private class ImportRun {
+        private final Long userId;
+        private final List<ExpenseDto> buffer = new ArrayList<>(batchSize);
+        private final List<String> errors = new ArrayList<>();
+        private final Set<Bucket> touched = new HashSet<>();
+        private long imported;
+        private long skipped;
+
+        ImportRun(Long userId) {
+            this.userId = userId;
+        }
+
+        void add(ExpenseDto dto) {
+            buffer.add(dto);
+            if (buffer.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long rowNumber, String reason) {
+            skipped++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Row " + rowNumber + ": " + reason);
+            }
+        }
+
+        ExpenseImportResultDto finish() {
+            return finish(null);
+        }
+
+        ExpenseImportResultDto finish(String error) {
+            flush();
+            if (imported > 0 || skipped > 0) {
+                notificationService.createNotification(userId, String.format(
+                        "Import finished: %d expenses added, %d rows skipped.", imported, skipped));
+            }
+            // Budget alerts once per touched bucket rather than one ExpenseAddedEvent per row;
+            // the per-expense "added" notification is replaced by the summary above
+            for (Bucket bucket : touched) {
+                try {
+                    expenseEventHandler.checkBudgetLimit(userId, bucket.category(), bucket.month(), bucket.year());
+                } catch (RuntimeException e) {
+                    System.out.println("❌ ExpenseImportService: Budget check failed for " + bucket + ": " + e.getMessage());
+                }
+            }
+            return new ExpenseImportResultDto(imported, skipped, errors, error);
+        }
+
+        private void flush() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, buffer, buffer.size(), (ps, dto) -> {
+                    ps.setDouble(1, dto.getAmount());
+                    ps.setString(2, dto.getCategory());
+                    ps.setString(3, dto.getDescription());
+                    ps.setDate(4, Date.valueOf(dto.getDate()));
+                    ps.setBoolean(5, false);
+                    ps.setLong(6, userId);
+                });
+                applyRollupDeltas();
+            });
+            imported += buffer.size();
+            for (ExpenseDto dto : buffer) {
+                touched.add(new Bucket(dto.getDate().getYear(), dto.getDate().getMonthValue(), dto.getCategory()));
+            }
+            buffer.clear();
+        }
+
+        // One rollup/budget update per (year, month, category) in the batch instead of per row
+        private void applyRollupDeltas() {
+            Map<List<Object>, double[]> deltas = new HashMap<>();
+            for (ExpenseDto dto : buffer) {
+                List<Object> key = List.of(dto.getDate().getYear(), dto.getDate().getMonthValue(),
+                        dto.getCategory() != null ? dto.getCategory() : "");
+                double[] delta = deltas.computeIfAbsent(key, k -> new double[2]);
+                delta[0] += dto.getAmount();
+                delta[1]++;
+            }
+            deltas.forEach((key, delta) -> spendingRollupService.applyDelta(userId,
+                    (Integer) key.get(0), (Integer) key.get(1), (String) key.get(2),
+                    delta[0], (long) delta[1]));
+        }
+    }
+
+    // ----------------- Parsing Helpers -----------------
+
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("date is required");
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (Exception e) {
+            throw new IllegalArgumentException("invalid date '" + value + "', expected yyyy-MM-dd");
+        }
+    }
+
+    private static Double parseAmount(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("amount is required");
+        }
+        try {
+            double amount = Double.parseDouble(value.trim());
+            if (amount <= 0 || Double.isNaN(amount) || Double.isInfinite(amount)) {
+                throw new IllegalArgumentException("amount must be positive");
+            }
+            return amount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid amount '" + value + "'");
+        }
+    }
+
+    private static String text(JsonNode node, String name) {
+        JsonNode value = node.get(name);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    // Editors on Windows often save UTF-8 with a byte order mark, which readers keep as U+FEFF
+    private static String stripBom(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+
+    private static boolean isHeader(List<String> fields) {
+        return fields.stream().anyMatch(f -> f.trim().equalsIgnoreCase("amount"));
+    }
+
+    private static Map<String, Integer> headerColumns(List<String> fields) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            columns.put(fields.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return columns;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Splits one CSV line; supports double-quoted fields with "" escapes (no embedded newlines)
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (inQuotes) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    inQuotes = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
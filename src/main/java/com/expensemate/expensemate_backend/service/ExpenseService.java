@@ -1,26 +1,36 @@
 package com.expensemate.expensemate_backend.service;
 
+import com.expensemate.expensemate_backend.dto.CursorPageDto;
 import com.expensemate.expensemate_backend.dto.ExpenseDto;
-import com.expensemate.expensemate_backend.model.Budget;
+import com.expensemate.expensemate_backend.dto.ExpenseFilter;
+import com.expensemate.expensemate_backend.dto.ExpenseSummaryDto;
 import com.expensemate.expensemate_backend.model.Expense;
 import com.expensemate.expensemate_backend.model.User;
-import com.expensemate.expensemate_backend.repository.BudgetRepository;
 import com.expensemate.expensemate_backend.repository.ExpenseRepository;
+import com.expensemate.expensemate_backend.repository.ExpenseSpecifications;
 import com.expensemate.expensemate_backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class ExpenseService {
 
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "date", "id");
+    private static final Set<String> SORTABLE_FIELDS = Set.of("date", "amount", "category");
+
     @Autowired
     private ExpenseRepository expenseRepository;
 
@@ -28,12 +38,13 @@ public class ExpenseService {
     private UserRepository userRepository;
 
     @Autowired
-    private BudgetRepository budgetRepository;
+    private ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    private NotificationService notificationService;
+    private SpendingRollupService spendingRollupService;
 
     // ----------------- Add Expense -----------------
+    @Transactional
     public Expense addExpense(Long userId, ExpenseDto dto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -46,57 +57,86 @@ public class ExpenseService {
         expense.setUser(user);
 
         Expense savedExpense = expenseRepository.save(expense);
+        spendingRollupService.recordExpense(savedExpense);
 
-        // ✅ Trigger notification for new expense
-        notificationService.notifyExpenseAdded(userId, savedExpense.getAmount(), savedExpense.getCategory());
-
-        // ---------------- Budget limit checks ----------------
-        Optional<Budget> budgetOpt = budgetRepository.findByUserIdAndMonthAndYear(
-                userId, savedExpense.getDate().getMonthValue(), savedExpense.getDate().getYear()
-        );
+        // Notifications and budget alerts run after commit on the expense event executor
+        eventPublisher.publishEvent(new ExpenseAddedEvent(this, userId, savedExpense.getId(),
+                savedExpense.getAmount(), savedExpense.getCategory(), savedExpense.getDate()));
 
-        if (budgetOpt.isPresent()) {
-            Budget budget = budgetOpt.get();
+        return savedExpense;
+    }
 
-            double totalSpent = getTotalSpentForCategory(userId, savedExpense.getCategory(),
-                    savedExpense.getDate().getMonthValue(), savedExpense.getDate().getYear());
+    // ----------------- Get Expenses with filters -----------------
+    public Page<ExpenseSummaryDto> getExpenses(Long userId, ExpenseFilter filter, Sort sort, int page, int size) {
+        Specification<Expense> spec = ExpenseSpecifications.forUser(userId, filter);
+        PageRequest pageable = PageRequest.of(page, size, sort);
+        List<ExpenseSummaryDto> content = expenseRepository.findSummaries(spec, sort, pageable.getOffset(), size);
+        // The count query is skipped when this page alone shows the total (e.g. a short last page)
+        return PageableExecutionUtils.getPage(content, pageable, () -> expenseRepository.count(spec));
+    }
 
-            double percentSpent = (totalSpent / budget.getAmount()) * 100;
+    // ----------------- Get Expenses (keyset / cursor mode) -----------------
+    // Cursor format: "<yyyy-MM-dd>:<id>" of the last expense on the previous page; empty for the first page.
+    // Always ordered newest first, since the cursor is a (date, id) position.
+    public CursorPageDto<ExpenseSummaryDto> getExpensesByCursor(Long userId, ExpenseFilter filter, String cursor, int size) {
+        Specification<Expense> spec = ExpenseSpecifications.forUser(userId, filter);
 
-            if (totalSpent > budget.getAmount()) {
-                notificationService.notifyBudgetExceeded(userId, savedExpense.getCategory());
-            } else if (percentSpent >= 80) {
-                notificationService.notifyBudgetNearingLimit(userId, savedExpense.getCategory(), percentSpent);
-            }
+        if (cursor != null && !cursor.isBlank()) {
+            CursorPosition position = CursorPosition.parse(cursor);
+            spec = spec.and(ExpenseSpecifications.beforeCursor(position.date(), position.id()));
         }
 
-        return savedExpense;
-    }
+        // Fetch one extra row to learn whether another page exists (no count query)
+        List<ExpenseSummaryDto> rows = expenseRepository.findSummaries(spec, KEYSET_SORT, 0, size + 1);
 
-    // ----------------- Helper: total spent in month for category -----------------
-    private double getTotalSpentForCategory(Long userId, String category, int month, int year) {
-        // Custom repository method required:
-        // List<Expense> findByUserIdAndCategoryAndMonth(Long userId, String category, int month, int year);
-        List<Expense> expenses = expenseRepository.findByUserIdAndCategoryAndMonth(userId, category, month, year);
-        return expenses.stream().mapToDouble(Expense::getAmount).sum();
+        boolean hasNext = rows.size() > size;
+        List<ExpenseSummaryDto> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            nextCursor = CursorPosition.of(content.get(content.size() - 1)).format();
+        }
+        return new CursorPageDto<>(content, nextCursor, hasNext);
     }
 
-    // ----------------- Get Expenses with filters -----------------
-    public Page<Expense> getExpenses(Long userId, String category, String date, Pageable pageable) {
-        if (category != null && !category.isEmpty()) {
-            return expenseRepository.findByUserIdAndCategory(userId, category, pageable);
+    // A position in the (date, id) keyset order, as encoded in cursors: "<yyyy-MM-dd>:<id>"
+    record CursorPosition(LocalDate date, long id) {
+
+        static CursorPosition of(ExpenseSummaryDto expense) {
+            return new CursorPosition(expense.getDate(), expense.getId());
         }
 
-        if (date != null && !date.isEmpty()) { // format: yyyy-MM
-            LocalDate start = LocalDate.parse(date + "-01");
-            LocalDate end = start.withDayOfMonth(start.lengthOfMonth());
-            return expenseRepository.findByUserIdAndDateBetween(userId, start, end, pageable);
+        static CursorPosition parse(String cursor) {
+            try {
+                String[] parts = cursor.split(":", 2);
+                return new CursorPosition(LocalDate.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
         }
 
-        return expenseRepository.findByUserId(userId, pageable);
+        String format() {
+            return date + ":" + id;
+        }
+    }
+
+    // Parse "field" or "field,asc|desc"; only indexed/known columns are accepted, id breaks ties
+    public static Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return KEYSET_SORT;
+        }
+        String[] parts = sort.split(",");
+        String field = parts[0].trim();
+        if (!SORTABLE_FIELDS.contains(field)) {
+            throw new IllegalArgumentException("Unsupported sort field: " + field);
+        }
+        Sort.Direction direction = parts.length > 1 && parts[1].trim().equalsIgnoreCase("asc")
+                ? Sort.Direction.ASC
+                : Sort.Direction.DESC;
+        return Sort.by(direction, field).and(Sort.by(direction, "id"));
     }
 
     // ----------------- Update Expense -----------------
+    @Transactional
     public Expense updateExpense(Long id, ExpenseDto dto, Long userId) {
         Expense expense = expenseRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Expense not found"));
@@ -105,15 +145,21 @@ public class ExpenseService {
             throw new RuntimeException("Cannot update expense of another user");
         }
 
+        // Take the old values out of the rollup before they change
+        spendingRollupService.removeExpense(expense);
+
         expense.setAmount(dto.getAmount());
         expense.setCategory(dto.getCategory());
         expense.setDescription(dto.getDescription());
         expense.setDate(dto.getDate());
 
-        return expenseRepository.save(expense);
+        Expense saved = expenseRepository.save(expense);
+        spendingRollupService.recordExpense(saved);
+        return saved;
     }
 
     // ----------------- Delete Expense -----------------
+    @Transactional
     public void deleteExpense(Long id, Long userId) {
         Expense expense = expenseRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Expense not found"));
@@ -123,29 +169,29 @@ public class ExpenseService {
         }
 
         expenseRepository.delete(expense);
+        spendingRollupService.removeExpense(expense);
     }
 
     // ----------------- Total Monthly Spending -----------------
     public double getTotalMonthlySpending(Long userId, int month, int year) {
-        return expenseRepository.sumExpensesForUserAndMonth(userId, month, year);
+        return spendingRollupService.getMonthlyTotal(userId, month, year);
     }
 
     // ----------------- Spending by Category -----------------
     public Map<String, Double> getSpendingByCategory(Long userId, int month, int year) {
-        List<Object[]> results = expenseRepository.sumExpensesByCategory(userId, month, year);
-        Map<String, Double> map = new HashMap<>();
-        for (Object[] row : results) {
-            String category = (String) row[0];
-            Double amount = ((Number) row[1]).doubleValue();
-            map.put(category, amount);
+        Map<String, Double> totals = new HashMap<>(spendingRollupService.getCategoryTotals(userId, month, year));
+        // Uncategorised spending has always been reported under a null key here
+        Double uncategorised = totals.remove(SpendingRollupService.NO_CATEGORY);
+        if (uncategorised != null) {
+            totals.put(null, uncategorised);
         }
-        return map;
+        return totals;
     }
 
     // ----------------- Expenses for Report -----------------
-    public List<Expense> getExpensesForMonth(Long userId, int month, int year) {
+    public List<ExpenseSummaryDto> getExpensesForMonth(Long userId, int month, int year) {
         LocalDate start = LocalDate.of(year, month, 1);
         LocalDate end = start.withDayOfMonth(start.lengthOfMonth());
-        return expenseRepository.findByUserIdAndDateBetween(userId, start, end);
+        return expenseRepository.findSummariesByUserIdAndDateBetween(userId, start, end);
     }
 }
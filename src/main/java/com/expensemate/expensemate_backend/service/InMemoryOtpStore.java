@@ -0,0 +1,107 @@
+package com.expensemate.expensemate_backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-node OTP store. OTPs are kept only as an HMAC under a per-process random key, so a
+ * heap dump does not reveal them. Expired entries are reclaimed by a timer wheel ticking once
+ * a second, so memory is bounded by the OTPs issued within one TTL.
+ */
+@Component
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private static final class Entry {
+        final String email;
+        final byte[] otpHash;
+        final long expiresAtMillis;
+        final AtomicInteger attempts = new AtomicInteger();
+
+        Entry(String email, byte[] otpHash, long expiresAtMillis) {
+            this.email = email;
+            this.otpHash = otpHash;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final TimerWheel<Entry> expiry = new TimerWheel<>(1000, System.currentTimeMillis());
+    private final SecretKeySpec hmacKey;
+    private final int maxAttempts;
+
+    public InMemoryOtpStore(@Value("${app.otp.max-attempts}") int maxAttempts) {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.hmacKey = new SecretKeySpec(key, "HmacSHA256");
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public void save(String email, String otp, Duration ttl) {
+        Entry entry = new Entry(email, hash(otp), System.currentTimeMillis() + ttl.toMillis());
+        entries.put(email, entry);
+        synchronized (expiry) {
+            expiry.schedule(entry, entry.expiresAtMillis);
+        }
+    }
+
+    @Override
+    public boolean verify(String email, String otp) {
+        Entry entry = entries.get(email);
+        if (entry == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() > entry.expiresAtMillis
+                || entry.attempts.incrementAndGet() > maxAttempts) {
+            entries.remove(email, entry);
+            return false;
+        }
+        if (!MessageDigest.isEqual(entry.otpHash, hash(otp))) {
+            return false;
+        }
+        // A correct OTP does not use up an attempt
+        entry.attempts.decrementAndGet();
+        return true;
+    }
+
+    @Override
+    public void remove(String email) {
+        entries.remove(email);
+    }
+
+    // Entries still held, expired or not
+    int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void expire() {
+        synchronized (expiry) {
+            // Only drop the entry if it was not replaced by a newer OTP in the meantime
+            expiry.advance(System.currentTimeMillis(), entry -> entries.remove(entry.email, entry));
+        }
+    }
+
+    private byte[] hash(String otp) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(hmacKey);
+            return mac.doFinal((otp != null ? otp : "").getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package com.expensemate.expensemate_backend.service;
 
+import com.expensemate.expensemate_backend.dto.ExpenseSummaryDto;
 import com.expensemate.expensemate_backend.dto.InsightDto;
-import com.expensemate.expensemate_backend.model.Budget;
-import com.expensemate.expensemate_backend.model.Expense;
-import com.expensemate.expensemate_backend.repository.BudgetRepository;
 import com.expensemate.expensemate_backend.repository.ExpenseRepository;
 import org.springframework.stereotype.Service;
 
@@ -22,33 +20,36 @@ import java.io.ByteArrayOutputStream;
 public class InsightService {
 
     private final ExpenseRepository expenseRepository;
-    private final BudgetRepository budgetRepository;
+    private final BudgetService budgetService;
+    private final SpendingRollupService spendingRollupService;
 
     public InsightService(ExpenseRepository expenseRepository,
-                          BudgetRepository budgetRepository) {
+                          BudgetService budgetService,
+                          SpendingRollupService spendingRollupService) {
         this.expenseRepository = expenseRepository;
-        this.budgetRepository = budgetRepository;
+        this.budgetService = budgetService;
+        this.spendingRollupService = spendingRollupService;
     }
 
     public InsightDto generateUserInsights(Long userId, String monthParam) {
-        List<Expense> expenses;
+        List<ExpenseSummaryDto> expenses;
         LocalDate start;
         LocalDate end;
 
         // Determine period
         if (monthParam == null || monthParam.equalsIgnoreCase("all")) {
-            expenses = expenseRepository.findByUserId(userId);
+            expenses = expenseRepository.findSummariesByUserId(userId);
         } else if (monthParam.equalsIgnoreCase("current")) {
             YearMonth current = YearMonth.now();
             start = current.atDay(1);
             end = current.atEndOfMonth();
-            expenses = expenseRepository.findByUserIdAndDateBetween(userId, start, end);
+            expenses = expenseRepository.findSummariesByUserIdAndDateBetween(userId, start, end);
         } else {
             try {
                 YearMonth targetMonth = YearMonth.parse(monthParam);
                 start = targetMonth.atDay(1);
                 end = targetMonth.atEndOfMonth();
-                expenses = expenseRepository.findByUserIdAndDateBetween(userId, start, end);
+                expenses = expenseRepository.findSummariesByUserIdAndDateBetween(userId, start, end);
             } catch (Exception e) {
                 throw new IllegalArgumentException("Invalid month format. Use 'YYYY-MM', 'current', or 'all'.");
             }
@@ -60,14 +61,14 @@ public class InsightService {
         }
 
         // --- Total & Daily Average ---
-        double totalSpent = expenses.stream().mapToDouble(Expense::getAmount).sum();
-        long days = expenses.stream().map(Expense::getDate).distinct().count();
+        double totalSpent = expenses.stream().mapToDouble(ExpenseSummaryDto::getAmount).sum();
+        long days = expenses.stream().map(ExpenseSummaryDto::getDate).distinct().count();
         double dailyAvg = totalSpent / Math.max(days, 1);
 
         // --- Category Totals & Top Category ---
         Map<String, Double> categoryTotals = expenses.stream()
-                .collect(Collectors.groupingBy(Expense::getCategory,
-                        Collectors.summingDouble(Expense::getAmount)));
+                .collect(Collectors.groupingBy(ExpenseSummaryDto::getCategory,
+                        Collectors.summingDouble(ExpenseSummaryDto::getAmount)));
 
         String topCategory = categoryTotals.entrySet().stream()
                 .max(Map.Entry.comparingByValue())
@@ -92,8 +93,8 @@ public class InsightService {
         }
 
         // --- 3. Unusual Expenses Alert ---
-        double avgExpense = expenses.stream().mapToDouble(Expense::getAmount).average().orElse(0);
-        List<Expense> unusual = expenses.stream()
+        double avgExpense = expenses.stream().mapToDouble(ExpenseSummaryDto::getAmount).average().orElse(0);
+        List<ExpenseSummaryDto> unusual = expenses.stream()
                 .filter(e -> e.getAmount() > 2 * avgExpense)
                 .collect(Collectors.toList());
         if (!unusual.isEmpty()) {
@@ -107,9 +108,8 @@ public class InsightService {
         if (monthParam != null && !monthParam.equalsIgnoreCase("all") && !monthParam.equalsIgnoreCase("current")) {
             month = YearMonth.parse(monthParam);
         }
-        Optional<Budget> budgetOpt = budgetRepository.findByUserIdAndMonthAndYear(userId, month.getMonthValue(), month.getYear());
-        budgetOpt.ifPresent(budget -> {
-            double budgetAmount = budget.getAmount();
+        Optional<Double> budgetOpt = budgetService.findBudgetAmount(userId, month.getMonthValue(), month.getYear());
+        budgetOpt.ifPresent(budgetAmount -> {
             double budgetUsage = (totalSpent / budgetAmount) * 100;
             message.append("4️⃣ Budget Usage: ");
             if (budgetUsage >= 80) {
@@ -134,7 +134,7 @@ public class InsightService {
 
         // --- 7. Recurring Expense Alert ---
         Map<String, Long> categoryCounts = expenses.stream()
-                .collect(Collectors.groupingBy(Expense::getCategory, Collectors.counting()));
+                .collect(Collectors.groupingBy(ExpenseSummaryDto::getCategory, Collectors.counting()));
         List<String> recurringCategories = categoryCounts.entrySet().stream()
                 .filter(entry -> entry.getValue() >= 3)
                 .map(Map.Entry::getKey)
@@ -147,7 +147,7 @@ public class InsightService {
 
         // --- 8. Potential Savings Tip ---
         if (budgetOpt.isPresent()) {
-            double budgetAmount = budgetOpt.get().getAmount();
+            double budgetAmount = budgetOpt.get();
             if (totalSpent > budgetAmount * 0.7) {
                 message.append("8️⃣ Potential Savings Tip: Consider reducing spending in ");
                 message.append(String.format("%s or other categories to stay under budget.\n\n", topCategory));
@@ -156,8 +156,8 @@ public class InsightService {
 
         // --- 9. High Spending Days ---
         Map<LocalDate, Double> dailySpending = expenses.stream()
-                .collect(Collectors.groupingBy(Expense::getDate,
-                        Collectors.summingDouble(Expense::getAmount)));
+                .collect(Collectors.groupingBy(ExpenseSummaryDto::getDate,
+                        Collectors.summingDouble(ExpenseSummaryDto::getAmount)));
         Optional<Map.Entry<LocalDate, Double>> highestSpendingDay = dailySpending.entrySet().stream()
                 .max(Map.Entry.comparingByValue());
         if (highestSpendingDay.isPresent() && highestSpendingDay.get().getValue() > dailyAvg * 2) {
@@ -166,7 +166,7 @@ public class InsightService {
         }
 
         // --- 10. Expense Categorization Suggestion ---
-        List<Expense> uncategorized = expenses.stream()
+        List<ExpenseSummaryDto> uncategorized = expenses.stream()
                 .filter(e -> e.getCategory() == null || e.getCategory().trim().isEmpty())
                 .collect(Collectors.toList());
         if (!uncategorized.isEmpty()) {
@@ -176,7 +176,7 @@ public class InsightService {
 
         // --- 11. Alert for Overspending ---
         if (budgetOpt.isPresent()) {
-            double budgetAmount = budgetOpt.get().getAmount();
+            double budgetAmount = budgetOpt.get();
             if (totalSpent > budgetAmount) {
                 double overspend = totalSpent - budgetAmount;
                 message.append("1️⃣1️⃣ Alert for Overspending: You have exceeded your monthly budget by ₹");
@@ -190,7 +190,7 @@ public class InsightService {
 
         // --- 12. Savings Opportunity ---
         if (budgetOpt.isPresent()) {
-            double budgetAmount = budgetOpt.get().getAmount();
+            double budgetAmount = budgetOpt.get();
             if (totalSpent < budgetAmount * 0.5) {
                 double potentialSavings = budgetAmount * 0.5 - totalSpent;
                 message.append("1️⃣2️⃣ Savings Opportunity: You could save up to ₹");
@@ -223,10 +223,7 @@ public class InsightService {
 
     private double getPreviousMonthTotal(Long userId) {
         YearMonth previous = YearMonth.now().minusMonths(1);
-        LocalDate start = previous.atDay(1);
-        LocalDate end = previous.atEndOfMonth();
-        List<Expense> prevExpenses = expenseRepository.findByUserIdAndDateBetween(userId, start, end);
-        return prevExpenses.stream().mapToDouble(Expense::getAmount).sum();
+        return spendingRollupService.getMonthlyTotal(userId, previous.getMonthValue(), previous.getYear());
     }
 
     /**
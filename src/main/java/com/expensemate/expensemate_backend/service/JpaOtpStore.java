@@ -0,0 +1,78 @@
+package com.expensemate.expensemate_backend.service;
+
+import com.expensemate.expensemate_backend.model.PasswordResetToken;
+import com.expensemate.expensemate_backend.repository.PasswordResetTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+// OTPs in the password_reset_token table, shared by all nodes (app.otp.store=jpa).
+// Expired rows are bulk-deleted on a schedule instead of only when someone tries them.
+@Component
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "jpa")
+public class JpaOtpStore implements OtpStore {
+
+    private final PasswordResetTokenRepository tokenRepository;
+    private final int maxAttempts;
+
+    public JpaOtpStore(PasswordResetTokenRepository tokenRepository,
+                       @Value("${app.otp.max-attempts}") int maxAttempts) {
+        this.tokenRepository = tokenRepository;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    @Transactional
+    public void save(String email, String otp, Duration ttl) {
+        // remove old token if exists
+        tokenRepository.deleteByEmail(email);
+
+        PasswordResetToken token = new PasswordResetToken();
+        token.setEmail(email);
+        token.setOtp(otp);
+        token.setExpirationTime(Instant.now().plus(ttl).toEpochMilli());
+        tokenRepository.save(token);
+    }
+
+    @Override
+    @Transactional
+    public boolean verify(String email, String otp) {
+        Optional<PasswordResetToken> tokenOpt = tokenRepository.findByEmail(email);
+        if (tokenOpt.isEmpty()) return false;
+
+        PasswordResetToken token = tokenOpt.get();
+        if (Instant.now().toEpochMilli() > token.getExpirationTime() || token.getAttempts() >= maxAttempts) {
+            tokenRepository.delete(token);
+            return false;
+        }
+
+        boolean matches = otp != null && MessageDigest.isEqual(
+                token.getOtp().getBytes(StandardCharsets.UTF_8), otp.getBytes(StandardCharsets.UTF_8));
+        if (!matches) {
+            token.setAttempts(token.getAttempts() + 1);
+        }
+        return matches;
+    }
+
+    @Override
+    @Transactional
+    public void remove(String email) {
+        tokenRepository.deleteByEmail(email);
+    }
+
+    @Scheduled(fixedDelayString = "${app.otp.jpa.purge-interval-ms}")
+    public void purgeExpired() {
+        int purged = tokenRepository.deleteExpired(Instant.now().toEpochMilli());
+        if (purged > 0) {
+            System.out.println("🧹 JpaOtpStore: Purged " + purged + " expired OTPs");
+        }
+    }
+}
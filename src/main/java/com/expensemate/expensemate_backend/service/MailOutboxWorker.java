@@ -0,0 +1,226 @@
+package com.expensemate.expensemate_backend.service;
+
+import com.expensemate.expensemate_backend.model.MailOutbox;
+import com.expensemate.expensemate_backend.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers {@link MailOutbox} rows.
+ *
+ * Each drain claims a batch with SELECT ... FOR UPDATE SKIP LOCKED plus a lease, sends the whole
+ * batch over one SMTP connection, deletes what went out and reschedules failures with
+ * exponential backoff (capped, with jitter) until the attempt limit marks them FAILED.
+ * Drains are started right after a commit via {@link #wakeUp()} and by a periodic poll that
+ * picks up retries and anything left over from a restart.
+ */
+@Service
+public class MailOutboxWorker {
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor mailExecutor;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    // At most `workers` concurrent drains per node; a wake-up while all are busy just sets `pending`
+    private final Semaphore drainPermits;
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final Timer deliveryLag;
+
+    public MailOutboxWorker(MailOutboxRepository mailOutboxRepository,
+                            JavaMailSender mailSender,
+                            TransactionTemplate transactionTemplate,
+                            @Qualifier("mailExecutor") TaskExecutor mailExecutor,
+                            @Value("${app.mail.outbox.workers}") int workers,
+                            @Value("${app.mail.outbox.batch-size}") int batchSize,
+                            @Value("${app.mail.outbox.max-attempts}") int maxAttempts,
+                            @Value("${app.mail.outbox.base-backoff-seconds}") long baseBackoffSeconds,
+                            @Value("${app.mail.outbox.max-backoff-seconds}") long maxBackoffSeconds,
+                            @Value("${app.mail.outbox.lease-seconds}") long leaseSeconds,
+                            MeterRegistry meterRegistry) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.mailExecutor = mailExecutor;
+        this.drainPermits = new Semaphore(workers);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = Duration.ofSeconds(baseBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+
+        this.sentCounter = Counter.builder("mail.outbox.sent").register(meterRegistry);
+        this.retriedCounter = Counter.builder("mail.outbox.retried")
+                .description("Messages rescheduled after a failed send")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("mail.outbox.failed")
+                .description("Messages given up on after the last attempt")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("mail.outbox.batch")
+                .description("SMTP time per batch (one connection)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("mail.outbox.lag")
+                .description("Time from outbox insert to successful send")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // Ask for a drain soon (called after an outbox row commits)
+    public void wakeUp() {
+        pending.set(true);
+        if (!drainPermits.tryAcquire()) {
+            return; // a running drain will see `pending`
+        }
+        try {
+            mailExecutor.execute(() -> {
+                try {
+                    drain();
+                } finally {
+                    drainPermits.release();
+                }
+            });
+        } catch (TaskRejectedException e) {
+            drainPermits.release(); // the scheduled poll will catch up
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-ms}")
+    public void poll() {
+        wakeUp();
+    }
+
+    // Drop expired messages so one-time codes do not sit in the table after their use-by time
+    @Scheduled(fixedDelayString = "${app.mail.outbox.purge-interval-ms}")
+    public void purgeExpired() {
+        int purged = mailOutboxRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            System.out.println("🧹 MailOutboxWorker: Purged " + purged + " expired mails");
+        }
+    }
+
+    private void drain() {
+        int claimed;
+        do {
+            pending.set(false);
+            claimed = processBatch();
+        } while (claimed == batchSize || pending.get());
+    }
+
+    // Returns the number of messages claimed
+    private int processBatch() {
+        List<MailOutbox> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<SimpleMailMessage, MailOutbox> byMessage = new IdentityHashMap<>();
+        for (MailOutbox row : batch) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(row.getRecipient());
+            message.setSubject(row.getSubject());
+            message.setText(row.getBody());
+            byMessage.put(message, row);
+        }
+
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        try {
+            batchTimer.record(() -> mailSender.send(byMessage.keySet().toArray(new SimpleMailMessage[0])));
+        } catch (MailSendException e) {
+            failures.putAll(e.getFailedMessages());
+            if (failures.isEmpty()) {
+                byMessage.keySet().forEach(m -> failures.put(m, e));
+            }
+        } catch (MailException e) {
+            // Connection/auth problems: nothing in the batch went out
+            byMessage.keySet().forEach(m -> failures.put(m, e));
+        }
+
+        List<Long> delivered = new ArrayList<>();
+        List<MailOutbox> failed = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        byMessage.forEach((message, row) -> {
+            Exception error = failures.get(message);
+            if (error == null) {
+                delivered.add(row.getId());
+                deliveryLag.record(Duration.between(row.getCreatedAt(), now));
+            } else {
+                reschedule(row, error, now);
+                failed.add(row);
+            }
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            mailOutboxRepository.deleteAllByIdInBatch(delivered);
+            mailOutboxRepository.saveAll(failed);
+        });
+        sentCounter.increment(delivered.size());
+        return batch.size();
+    }
+
+    private List<MailOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = mailOutboxRepository.lockDueIds(now, batchSize);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            mailOutboxRepository.markSending(ids, now.plus(lease));
+            return mailOutboxRepository.findAllById(ids);
+        });
+    }
+
+    private void reschedule(MailOutbox row, Exception error, LocalDateTime now) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        row.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+        row.setLockedUntil(null);
+
+        if (row.getAttempts() >= maxAttempts) {
+            row.setStatus(MailOutbox.Status.FAILED);
+            failedCounter.increment();
+            System.out.println("❌ MailOutboxWorker: Giving up on mail " + row.getId() + ": " + row.getLastError());
+            return;
+        }
+
+        // base * 2^(attempts-1), capped, plus up to 20% jitter so retries do not arrive in lockstep
+        long backoffMillis = Math.min(maxBackoff.toMillis(),
+                baseBackoff.toMillis() << Math.min(20, row.getAttempts() - 1));
+        backoffMillis += ThreadLocalRandom.current().nextLong(backoffMillis / 5 + 1);
+        row.setStatus(MailOutbox.Status.PENDING);
+        row.setNextAttemptAt(now.plus(Duration.ofMillis(backoffMillis)));
+        retriedCounter.increment();
+    }
+}
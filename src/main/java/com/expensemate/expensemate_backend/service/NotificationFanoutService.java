@@ -0,0 +1,167 @@
+package com.expensemate.expensemate_backend.service;
+
+import com.expensemate.expensemate_backend.dto.NotificationDto;
+import com.expensemate.expensemate_backend.dto.NotificationFanoutJobDto;
+import com.expensemate.expensemate_backend.repository.NotificationRepository;
+import com.expensemate.expensemate_backend.repository.NotificationStateRepository;
+import com.expensemate.expensemate_backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes a global notification to every user as a background job.
+ *
+ * Users are covered in id-range chunks, each one {@code INSERT ... SELECT} (plus the matching
+ * unread-counter bump) in its own short transaction, so the admin request returns immediately
+ * with a job id. Progress can be polled and a running job cancelled between chunks (rows
+ * already written stay).
+ * Job state is kept in memory on this node and dropped some time after the job finishes.
+ */
+@Service
+public class NotificationFanoutService {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    private static final class Job {
+        final String id = UUID.randomUUID().toString();
+        final String message;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        volatile Status status = Status.QUEUED;
+        volatile boolean cancelRequested;
+        volatile long inserted;
+        volatile int percentComplete;
+        volatile LocalDateTime finishedAt;
+        volatile String error;
+
+        Job(String message) {
+            this.message = message;
+        }
+
+        NotificationFanoutJobDto toDto() {
+            return new NotificationFanoutJobDto(id, status.name(), message, inserted, percentComplete,
+                    createdAt, finishedAt, error);
+        }
+    }
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final NotificationStateRepository notificationStateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationStreamService notificationStreamService;
+    private final AsyncTaskExecutor executor;
+    private final long chunkSize;
+    private final Duration retention;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public NotificationFanoutService(NotificationRepository notificationRepository,
+                                     UserRepository userRepository,
+                                     NotificationStateRepository notificationStateRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     NotificationStreamService notificationStreamService,
+                                     @Qualifier("notificationFanoutExecutor") AsyncTaskExecutor executor,
+                                     @Value("${app.notifications.fanout.chunk-size}") long chunkSize,
+                                     @Value("${app.notifications.fanout.retention-minutes}") long retentionMinutes) {
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.notificationStateRepository = notificationStateRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.notificationStreamService = notificationStreamService;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+    }
+
+    // Queue a fan-out and return its job; throws IllegalStateException when too many jobs are queued
+    public NotificationFanoutJobDto start(String message) {
+        Job job = new Job(message);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            throw new IllegalStateException("Too many notification jobs queued, try again later");
+        }
+        System.out.println("🔔 NotificationFanoutService: Queued job " + job.id);
+        return job.toDto();
+    }
+
+    public Optional<NotificationFanoutJobDto> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::toDto);
+    }
+
+    // Ask a job to stop; a queued job never starts, a running one stops after its current chunk
+    public Optional<NotificationFanoutJobDto> cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        job.cancelRequested = true;
+        return Optional.of(job.toDto());
+    }
+
+    private void run(Job job) {
+        if (job.cancelRequested) {
+            finish(job, Status.CANCELLED);
+            return;
+        }
+        job.status = Status.RUNNING;
+        try {
+            Long minId = userRepository.findMinId();
+            Long maxId = userRepository.findMaxId();
+            if (minId != null && maxId != null) {
+                // One timestamp for the whole broadcast so it sorts as a single event
+                LocalDateTime createdAt = LocalDateTime.now();
+                long span = maxId - minId + 1;
+                for (long from = minId; from <= maxId; from += chunkSize) {
+                    if (job.cancelRequested) {
+                        finish(job, Status.CANCELLED);
+                        return;
+                    }
+                    long to = Math.min(from + chunkSize - 1, maxId);
+                    long fromId = from;
+                    Integer inserted = transactionTemplate.execute(tx -> {
+                        int rows = notificationRepository.insertForUserRange(job.message, createdAt, fromId, to);
+                        notificationStateRepository.incrementUnreadForUserRange(fromId, to);
+                        return rows;
+                    });
+                    job.inserted += inserted != null ? inserted : 0;
+                    // Bulk-inserted rows have no ids here; connected clients refetch on this event
+                    notificationStreamService.publishToUserRange(fromId, to,
+                            new NotificationDto(null, job.message, false, createdAt, false));
+                    job.percentComplete = (int) ((to - minId + 1) * 100 / span);
+                }
+            }
+            job.percentComplete = 100;
+            finish(job, Status.COMPLETED);
+        } catch (RuntimeException e) {
+            job.error = e.getMessage();
+            finish(job, Status.FAILED);
+        }
+    }
+
+    private void finish(Job job, Status status) {
+        job.finishedAt = LocalDateTime.now();
+        job.status = status;
+        System.out.println("🔔 NotificationFanoutService: Job " + job.id + " " + status
+                + " after " + job.inserted + " notifications");
+    }
+
+    // Forget finished jobs once they are older than the retention window
+    @Scheduled(fixedRate = 60000)
+    public void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+}
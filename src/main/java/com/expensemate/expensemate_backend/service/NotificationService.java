@@ -1,62 +1,300 @@
 package com.expensemate.expensemate_backend.service;
 
+import com.expensemate.expensemate_backend.dto.CursorPageDto;
+import com.expensemate.expensemate_backend.dto.NotificationDto;
+import com.expensemate.expensemate_backend.model.BroadcastNotification;
 import com.expensemate.expensemate_backend.model.Notification;
+import com.expensemate.expensemate_backend.model.NotificationState;
 import com.expensemate.expensemate_backend.model.User;
+import com.expensemate.expensemate_backend.repository.BroadcastNotificationRepository;
 import com.expensemate.expensemate_backend.repository.NotificationRepository;
+import com.expensemate.expensemate_backend.repository.NotificationStateRepository;
 import com.expensemate.expensemate_backend.repository.UserRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class NotificationService {
 
+    // Feed order: newest first; at equal timestamps personal notifications before broadcasts, then by id
+    private static final Comparator<NotificationDto> FEED_ORDER =
+            Comparator.comparing(NotificationDto::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(NotificationDto::isBroadcast)
+                    .thenComparing(NotificationDto::getId, Comparator.reverseOrder());
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_IDS = 1000;
+
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final BroadcastNotificationRepository broadcastNotificationRepository;
+    private final NotificationStateRepository notificationStateRepository;
+    private final NotificationStreamService notificationStreamService;
+    private final TransactionTemplate freshReadTemplate;
 
-    public NotificationService(NotificationRepository notificationRepository, UserRepository userRepository) {
+    public NotificationService(NotificationRepository notificationRepository,
+                               UserRepository userRepository,
+                               BroadcastNotificationRepository broadcastNotificationRepository,
+                               NotificationStateRepository notificationStateRepository,
+                               NotificationStreamService notificationStreamService,
+                               PlatformTransactionManager transactionManager) {
         this.notificationRepository = notificationRepository;
         this.userRepository = userRepository;
+        this.broadcastNotificationRepository = broadcastNotificationRepository;
+        this.notificationStateRepository = notificationStateRepository;
+        this.notificationStreamService = notificationStreamService;
+        this.freshReadTemplate = new TransactionTemplate(transactionManager);
+        this.freshReadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.freshReadTemplate.setReadOnly(true);
     }
 
     // ----------------- User Notifications -----------------
 
-    // Get all notifications for a user (newest first)
-    public List<Notification> getUserNotifications(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    // Personal notifications and broadcasts for a user, merged newest first
+    public List<NotificationDto> getUserNotifications(Long userId) {
+        long broadcastReadUpTo = getBroadcastReadUpTo(userId);
+
+        List<NotificationDto> feed = new ArrayList<>();
+        notificationRepository.findByUserIdOrderByCreatedAtDesc(userId)
+                .forEach(n -> feed.add(toDto(n)));
+        broadcastNotificationRepository.findVisibleToUser(userId)
+                .forEach(b -> feed.add(toDto(b, broadcastReadUpTo)));
+        feed.sort(FEED_ORDER);
+        return feed;
+    }
 
-        return notificationRepository.findByUserOrderByCreatedAtDesc(user);
+    // ----------------- Get Notifications (keyset / cursor mode) -----------------
+    // Cursor format: "<p|b>:<id>:<createdAt>" of the last item on the previous page (p = personal,
+    // b = broadcast); empty for the first page. Each source is read with its own keyset query
+    // and the two are merged, so a page costs at most 2 * (size + 1) rows.
+    public CursorPageDto<NotificationDto> getUserNotificationPage(Long userId, String before, int size) {
+        size = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Pageable limit = PageRequest.of(0, size + 1);
+        long broadcastReadUpTo = getBroadcastReadUpTo(userId);
+
+        List<Notification> personal;
+        List<BroadcastNotification> broadcasts;
+        if (before == null || before.isBlank()) {
+            personal = notificationRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, limit);
+            broadcasts = broadcastNotificationRepository.findVisibleToUser(userId, limit);
+        } else {
+            FeedPosition position = FeedPosition.parse(before);
+            personal = notificationRepository.findPageBefore(userId, position.createdAt(),
+                    position.personalIdBound(), limit);
+            broadcasts = broadcastNotificationRepository.findVisibleToUserBefore(userId, position.createdAt(),
+                    position.broadcastIdBound(), limit);
+        }
+
+        List<NotificationDto> rows = new ArrayList<>(personal.size() + broadcasts.size());
+        personal.forEach(n -> rows.add(toDto(n)));
+        broadcasts.forEach(b -> rows.add(toDto(b, broadcastReadUpTo)));
+        rows.sort(FEED_ORDER);
+
+        boolean hasNext = rows.size() > size;
+        List<NotificationDto> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            nextCursor = FeedPosition.of(content.get(content.size() - 1)).format();
+        }
+        return new CursorPageDto<>(content, nextCursor, hasNext);
     }
 
-    // Mark a single notification as read
+    // A position in the feed, as encoded in cursors: "<p|b>:<id>:<createdAt>"
+    record FeedPosition(boolean broadcast, long id, LocalDateTime createdAt) {
+
+        static FeedPosition of(NotificationDto item) {
+            return new FeedPosition(item.isBroadcast(), item.getId(), item.getCreatedAt());
+        }
+
+        static FeedPosition parse(String cursor) {
+            try {
+                String[] parts = cursor.split(":", 3);
+                boolean broadcast = "b".equals(parts[0]);
+                if (!broadcast && !"p".equals(parts[0])) {
+                    throw new IllegalArgumentException();
+                }
+                return new FeedPosition(broadcast, Long.parseLong(parts[1]), LocalDateTime.parse(parts[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+
+        // At equal timestamps personal items come before broadcasts, so where the other source's
+        // items at this timestamp fall depends on the kind of item the position points at.
+        // Personal items at or after the position satisfy (createdAt, id) <= (createdAt, personalIdBound).
+        long personalIdBound() {
+            return broadcast ? 0 : id;
+        }
+
+        long broadcastIdBound() {
+            return broadcast ? id : Long.MAX_VALUE;
+        }
+
+        String format() {
+            return (broadcast ? "b" : "p") + ":" + id + ":" + createdAt;
+        }
+    }
+
+    // Unread personal notifications (cached counter) plus unread broadcasts
     @Transactional
-    public Notification markAsRead(Long notificationId) {
-        Notification notification = notificationRepository.findById(notificationId)
-                .orElseThrow(() -> new RuntimeException("Notification not found"));
-        notification.setRead(true);
-        return notification;
+    public long getUnreadCount(Long userId) {
+        NotificationState state = notificationStateRepository.findById(userId)
+                .filter(s -> s.getUnreadCount() != null)
+                .orElseGet(() -> initUnreadCount(userId));
+        return state.getUnreadCount()
+                + broadcastNotificationRepository.countUnreadVisibleToUser(userId, state.getBroadcastReadUpTo());
+    }
+
+    // Count once under the row lock; from then on writers keep the counter up to date.
+    // The count runs in a new transaction started after the lock is held: the caller's snapshot
+    // may predate notifications committed while the counter was still null (their +1 was a no-op).
+    // Writers still in flight block on the locked row and apply their delta after this commits.
+    private NotificationState initUnreadCount(Long userId) {
+        notificationStateRepository.insertIfAbsent(userId);
+        NotificationState state = notificationStateRepository.findForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("Notification state missing for user " + userId));
+        if (state.getUnreadCount() == null) {
+            state.setUnreadCount(freshReadTemplate.execute(
+                    tx -> notificationRepository.countByUserIdAndReadFalse(userId)));
+        }
+        return state;
+    }
+
+    private static NotificationDto toDto(Notification n) {
+        return new NotificationDto(n.getId(), n.getMessage(), n.isRead(), n.getCreatedAt(), false);
+    }
+
+    private static NotificationDto toDto(BroadcastNotification b, long broadcastReadUpTo) {
+        return new NotificationDto(b.getId(), b.getMessage(), b.getId() <= broadcastReadUpTo, b.getCreatedAt(), true);
     }
 
-    // Mark all notifications as read for a user
+    // Marks this broadcast and every older one as read (the read state is a single watermark)
     @Transactional
-    public void markAllAsRead(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public void markBroadcastAsRead(Long userId, Long broadcastId) {
+        if (!broadcastNotificationRepository.existsById(broadcastId)) {
+            throw new RuntimeException("Notification not found");
+        }
+        notificationStateRepository.raiseBroadcastWatermark(userId, broadcastId);
+    }
+
+    private long getBroadcastReadUpTo(Long userId) {
+        return notificationStateRepository.findById(userId)
+                .map(NotificationState::getBroadcastReadUpTo)
+                .orElse(0L);
+    }
+
+    // Mark a single notification as read; empty when it does not exist or belongs to another user
+    @Transactional
+    public Optional<NotificationDto> markAsRead(Long userId, Long notificationId) {
+        if (notificationRepository.markAsRead(notificationId, userId) > 0) {
+            notificationStateRepository.addUnread(userId, -1);
+        }
+        return notificationRepository.findByIdAndUserId(notificationId, userId).map(NotificationService::toDto);
+    }
 
-        List<Notification> notifications = notificationRepository.findByUser(user);
-        notifications.forEach(n -> n.setRead(true));
+    // Mark all notifications as read for a user; returns how many were unread
+    @Transactional
+    public int markAllAsRead(Long userId) {
+        int updated = notificationRepository.markAllAsRead(userId);
+        notificationStateRepository.resetUnread(userId);
+
+        Long latestBroadcastId = broadcastNotificationRepository.findMaxId();
+        if (latestBroadcastId != null) {
+            updated += raiseBroadcastWatermark(userId, latestBroadcastId);
+        }
+        return updated;
+    }
+
+    // Mark the user's personal notifications among `ids` as read; returns how many were unread
+    @Transactional
+    public int markAsRead(Long userId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        if (ids.size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_IDS + " ids per request; use upTo for more");
+        }
+        int updated = notificationRepository.markAsReadByIds(userId, ids);
+        if (updated > 0) {
+            notificationStateRepository.addUnread(userId, -updated);
+        }
+        return updated;
+    }
+
+    // Mark the item at `cursor` (same format as the feed's cursors) and everything older as read,
+    // broadcasts included; returns how many were unread
+    @Transactional
+    public int markAsReadUpTo(Long userId, String cursor) {
+        FeedPosition position = FeedPosition.parse(cursor);
+        int updated = notificationRepository.markAsReadUpTo(userId, position.createdAt(), position.personalIdBound());
+        if (updated > 0) {
+            notificationStateRepository.addUnread(userId, -updated);
+        }
+
+        Long broadcastUpTo = broadcastNotificationRepository.findMaxIdUpTo(position.createdAt(), position.broadcastIdBound());
+        if (broadcastUpTo != null) {
+            updated += raiseBroadcastWatermark(userId, broadcastUpTo);
+        }
+        return updated;
+    }
+
+    // Raise the watermark and return how many visible broadcasts it newly marks read
+    private int raiseBroadcastWatermark(Long userId, long upTo) {
+        long readUpTo = getBroadcastReadUpTo(userId);
+        if (upTo <= readUpTo) {
+            return 0;
+        }
+        long newlyRead = broadcastNotificationRepository.countVisibleToUserInRange(userId, readUpTo, upTo);
+        notificationStateRepository.raiseBroadcastWatermark(userId, upTo);
+        return (int) newlyRead;
     }
 
     // ----------------- Admin Notifications -----------------
 
     // Create notification for a single user
+    @Transactional
     public Notification createNotification(Long userId, String message) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        return saveNotification(user, message);
+    }
+
+    // Global notification stored once and merged into every user's feed at read time
+    @Transactional
+    public BroadcastNotification sendBroadcast(String message) {
+        BroadcastNotification broadcast = BroadcastNotification.builder()
+                .message(message)
+                .createdAt(LocalDateTime.now())
+                .build();
+        broadcast = broadcastNotificationRepository.save(broadcast);
+
+        NotificationDto pushed = toDto(broadcast, 0);
+        afterCommit(() -> notificationStreamService.publishToAll(pushed));
+        return broadcast;
+    }
+
+    // Internal notifications come from code that already knows the user exists,
+    // so a reference is enough and the users row is not read again
+    private Notification notifyUser(Long userId, String message) {
+        return saveNotification(userRepository.getReferenceById(userId), message);
+    }
+
+    private Notification saveNotification(User user, String message) {
         Notification notification = Notification.builder()
                 .user(user)
                 .message(message)
@@ -64,69 +302,71 @@ public class NotificationService {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        return notificationRepository.save(notification);
+        notification = notificationRepository.save(notification);
+        // Same transaction as the insert, so the counter cannot be initialised in between
+        notificationStateRepository.addUnread(user.getId(), 1);
+
+        Long userId = user.getId();
+        NotificationDto pushed = toDto(notification);
+        afterCommit(() -> notificationStreamService.publish(userId, pushed));
+        return notification;
     }
 
-    // Send global notification to all users (admin only)
-    public void sendGlobalNotification(String message) {
-        System.out.println("🔔 NotificationService: Starting global notification process");
-        String adminMessage = message + " by admin";
-        System.out.println("🔔 NotificationService: Admin message: " + adminMessage);
-        
-        List<User> allUsers = userRepository.findAll();
-        System.out.println("🔔 NotificationService: Found " + allUsers.size() + " users to notify");
-        
-        allUsers.forEach(user -> {
-            System.out.println("🔔 NotificationService: Creating notification for user: " + user.getEmail());
-            createNotification(user.getId(), adminMessage);
-        });
-        
-        System.out.println("✅ NotificationService: Global notification process completed");
+    // Push only once the row is visible to the client's follow-up fetch
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 
     // ----------------- Helper Methods for Common Scenarios -----------------
 
+    @Transactional
     public void notifyExpenseAdded(Long userId, double amount, String category) {
         String msg = String.format("Expense of ₹%.2f added to category %s.", amount, category);
-        createNotification(userId, msg);
+        notifyUser(userId, msg);
     }
 
+    @Transactional
     public void notifyBudgetExceeded(Long userId, String category) {
         String msg = String.format("Warning: You have exceeded your budget for %s.", category);
-        createNotification(userId, msg);
+        notifyUser(userId, msg);
     }
 
     public void notifyBudgetNearingLimit(Long userId, String category) {
         notifyBudgetNearingLimit(userId, category, 80); // default 80%
     }
 
+    @Transactional
     public void notifyBudgetNearingLimit(Long userId, String category, double percent) {
         String msg = String.format("Alert: You have spent %.0f%% of your budget for %s.", percent, category);
-        createNotification(userId, msg);
+        notifyUser(userId, msg);
     }
 
     // ✅ Prevent duplicate "Your budget report is ready" notifications
+    @Transactional
     public void notifyReportReady(Long userId) {
         String message = "Your budget report is ready.";
 
-        // Fetch user and get recent notifications
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        // Fetch last few notifications for the user
-        List<Notification> recent = notificationRepository.findByUserOrderByCreatedAtDesc(user);
-
         // Check if the same message already exists in the last 5 notifications
+        List<Notification> recent = notificationRepository.findTop5ByUserIdOrderByCreatedAtDesc(userId);
         boolean alreadySent = recent.stream()
-                .limit(5)
                 .anyMatch(n -> n.getMessage().equals(message));
 
         if (!alreadySent) {
-            createNotification(userId, message);
+            notifyUser(userId, message);
         }
     }
 
 
+    @Transactional
     public void notifyAdminReminder(Long userId, String message) {
         createNotification(userId, "Reminder from admin: " + message);
     }
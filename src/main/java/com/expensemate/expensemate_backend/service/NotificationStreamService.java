@@ -0,0 +1,250 @@
+package com.expensemate.expensemate_backend.service;
+
+import com.expensemate.expensemate_backend.dto.NotificationDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process registry of Server-Sent Events subscribers, keyed by user id.
+ *
+ * An idle connection is an async request holding only an {@link SseEmitter} and a small bounded
+ * buffer, so no thread is parked per client. Publishing only enqueues; a shared sender pool
+ * drains buffers and writes to the sockets. A client that falls a full buffer behind is
+ * disconnected (it reconnects and refetches), so one slow reader cannot hold memory or senders.
+ * Drains the sender pool cannot take right now are retried by a periodic sweep, and a client is
+ * only counted as slow when its own socket write is what is behind, not the sender queue.
+ * Subscribers live on this node only; clients connected to another node see new items on
+ * their next fetch.
+ */
+@Service
+public class NotificationStreamService {
+
+    // Events are built once and shared by every subscriber (a builder must not be reused)
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    private final class Subscriber {
+        final Long userId;
+        final SseEmitter emitter;
+        final Queue<Set<DataWithMediaType>> buffer;
+        // A drain is queued or running; `sending` only while a sender is actually writing
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean sending = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void offer(Set<DataWithMediaType> event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                // Writing to this client is what is behind; otherwise the events never got a sender
+                (sending.get() ? evicted : backlogged).increment();
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        // Heartbeats only matter on a quiet stream; queued events keep it alive just as well
+        void offerHeartbeat() {
+            if (buffer.isEmpty()) {
+                offer(HEARTBEAT);
+            }
+        }
+
+        // Returns false when the sender pool is saturated; the sweep then retries this subscriber
+        boolean scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return true;
+            }
+            try {
+                executor.execute(this::drain);
+                return true;
+            } catch (TaskRejectedException e) {
+                draining.set(false);
+                awaitingSender.add(this);
+                return false;
+            }
+        }
+
+        void drain() {
+            sending.set(true);
+            try {
+                Set<DataWithMediaType> event;
+                while (!closed.get() && (event = buffer.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away mid-write
+                close();
+            } finally {
+                sending.set(false);
+                draining.set(false);
+            }
+            // Pick up anything offered after the last poll but before draining was cleared
+            if (!closed.get() && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                awaitingSender.remove(this);
+                remove(this);
+                emitter.complete();
+            }
+        }
+    }
+
+    private final Map<Long, Deque<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    // Subscribers with buffered events whose drain was rejected by the sender pool
+    private final Set<Subscriber> awaitingSender = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AsyncTaskExecutor executor;
+    private final long timeoutMs;
+    private final int bufferSize;
+    private final int maxConnectionsPerUser;
+    private final Counter evicted;
+    private final Counter backlogged;
+
+    public NotificationStreamService(@Qualifier("notificationStreamExecutor") AsyncTaskExecutor executor,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.notifications.stream.timeout-ms}") long timeoutMs,
+                                     @Value("${app.notifications.stream.buffer-size}") int bufferSize,
+                                     @Value("${app.notifications.stream.max-connections-per-user}") int maxConnectionsPerUser) {
+        this.executor = executor;
+        this.timeoutMs = timeoutMs;
+        this.bufferSize = bufferSize;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.evicted = Counter.builder("notification.stream.evicted")
+                .description("SSE clients disconnected because writing to them fell a full buffer behind")
+                .register(meterRegistry);
+        this.backlogged = Counter.builder("notification.stream.backlogged")
+                .description("SSE clients disconnected because the sender pool fell a full buffer behind")
+                .register(meterRegistry);
+        Gauge.builder("notification.stream.connections", connections, AtomicInteger::get)
+                .description("Open SSE notification connections on this node")
+                .register(meterRegistry);
+    }
+
+    // Open a stream for a user; the oldest connection is closed once the per-user limit is reached
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        Deque<Subscriber> userSubscribers = subscribers.compute(userId, (id, existing) -> {
+            Deque<Subscriber> deque = existing != null ? existing : new ConcurrentLinkedDeque<>();
+            deque.addLast(subscriber);
+            return deque;
+        });
+        connections.incrementAndGet();
+        while (userSubscribers.size() > maxConnectionsPerUser) {
+            Subscriber oldest = userSubscribers.peekFirst();
+            if (oldest == null) {
+                break;
+            }
+            oldest.close();
+        }
+
+        // Tell the client the stream is open (also flushes the response headers)
+        subscriber.offer(SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+
+    public void publish(Long userId, NotificationDto notification) {
+        Deque<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+        Set<DataWithMediaType> event = toEvent(notification);
+        userSubscribers.forEach(s -> s.offer(event));
+    }
+
+    public void publishToAll(NotificationDto notification) {
+        Set<DataWithMediaType> event = toEvent(notification);
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(s -> s.offer(event)));
+    }
+
+    // Connected users with id in [fromId, toId] (global fan-out chunks)
+    public void publishToUserRange(long fromId, long toId, NotificationDto notification) {
+        Set<DataWithMediaType> event = toEvent(notification);
+        subscribers.forEach((userId, userSubscribers) -> {
+            if (userId >= fromId && userId <= toId) {
+                userSubscribers.forEach(s -> s.offer(event));
+            }
+        });
+    }
+
+    // Keeps idle connections from being dropped by proxies and detects dead clients
+    @Scheduled(fixedRateString = "${app.notifications.stream.heartbeat-ms}")
+    public void heartbeat() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(Subscriber::offerHeartbeat));
+    }
+
+    // Hand rejected drains back to the senders; stops at the first rejection, the rest wait for the next sweep
+    @Scheduled(fixedDelayString = "${app.notifications.stream.retry-ms}")
+    public void retryRejectedDrains() {
+        for (Subscriber subscriber : awaitingSender) {
+            awaitingSender.remove(subscriber);
+            if (!subscriber.closed.get() && !subscriber.scheduleDrain()) {
+                return;
+            }
+        }
+    }
+
+    // Events buffered on this node and not yet written (tests, diagnostics)
+    int pendingEvents() {
+        int pending = 0;
+        for (Deque<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                pending += subscriber.buffer.size();
+            }
+        }
+        return pending;
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, deque) -> {
+            if (deque.remove(subscriber)) {
+                connections.decrementAndGet();
+            }
+            return deque.isEmpty() ? null : deque;
+        });
+    }
+
+    private static Set<DataWithMediaType> toEvent(NotificationDto notification) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name("notification").data(notification);
+        if (notification.getId() != null) {
+            event.id((notification.isBroadcast() ? "b" : "p") + ":" + notification.getId());
+        }
+        return event.build();
+    }
+}
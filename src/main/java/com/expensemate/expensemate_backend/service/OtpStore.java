@@ -0,0 +1,22 @@
+package com.expensemate.expensemate_backend.service;
+
+import java.time.Duration;
+
+/**
+ * Holds the current password-reset OTP per email.
+ *
+ * {@link InMemoryOtpStore} is the default (single node); {@link JpaOtpStore} keeps OTPs in the
+ * password_reset_token table for multi-node deployments ({@code app.otp.store=jpa}).
+ */
+public interface OtpStore {
+
+    // Store a new OTP for the email, replacing any previous one
+    void save(String email, String otp, Duration ttl);
+
+    // True if the OTP matches and is still valid. Every wrong guess counts as an attempt;
+    // once the attempt limit is reached the OTP is discarded.
+    boolean verify(String email, String otp);
+
+    // Discard the email's OTP (after a successful reset)
+    void remove(String email);
+}
@@ -1,7 +1,6 @@
 package com.expensemate.expensemate_backend.service;
 
 import com.expensemate.expensemate_backend.dto.ReportDto;
-import com.expensemate.expensemate_backend.model.Expense;
 import com.expensemate.expensemate_backend.repository.ExpenseRepository;
 import com.expensemate.expensemate_backend.repository.UserRepository;
 import org.apache.poi.ss.usermodel.Row;
@@ -30,9 +29,7 @@ import java.io.IOException;
 import java.time.LocalDate;
 import java.util.LinkedHashMap;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 public class ReportService {
@@ -41,31 +38,25 @@ public class ReportService {
     private final UserRepository userRepository;
     private final BudgetService budgetService;
     private final NotificationService notificationService;
+    private final SpendingRollupService spendingRollupService;
 
     public ReportService(ExpenseRepository expenseRepository,
                          UserRepository userRepository,
                          BudgetService budgetService,
-                         NotificationService notificationService) {
+                         NotificationService notificationService,
+                         SpendingRollupService spendingRollupService) {
         this.expenseRepository = expenseRepository;
         this.userRepository = userRepository;
         this.budgetService = budgetService;
         this.notificationService = notificationService;
+        this.spendingRollupService = spendingRollupService;
     }
 
     // Fetch monthly report
     public ReportDto getMonthlyReport(Long userId, Integer month, Integer year) {
-        LocalDate start = LocalDate.of(year, month, 1);
-        LocalDate end = start.withDayOfMonth(start.lengthOfMonth());
+        Map<String, Double> categoryExpenses = spendingRollupService.getCategoryTotals(userId, month, year);
 
-        List<Expense> expenses = expenseRepository.findByUserIdAndDateBetween(userId, start, end);
-
-        Map<String, Double> categoryExpenses = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        Expense::getCategory,
-                        Collectors.summingDouble(Expense::getAmount)
-                ));
-
-        double totalSpent = expenses.stream().mapToDouble(Expense::getAmount).sum();
+        double totalSpent = categoryExpenses.values().stream().mapToDouble(Double::doubleValue).sum();
         double budget = getUserBudget(userId, month, year);
         double remaining = budget - totalSpent;
 
@@ -74,16 +65,8 @@ public class ReportService {
 
     // Fetch annual report
     public ReportDto getAnnualReport(Long userId, Integer year) {
-        LocalDate start = LocalDate.of(year, 1, 1);
-        LocalDate end = LocalDate.of(year, 12, 31);
-
-        List<Expense> expenses = expenseRepository.findByUserIdAndDateBetween(userId, start, end);
-
-        Map<String, Double> categoryExpenses = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        Expense::getCategory,
-                        Collectors.summingDouble(Expense::getAmount)
-                ));
+        Map<String, Double> categoryExpenses = spendingRollupService.getCategoryTotalsForYear(userId, year);
+        Map<Integer, Double> totalsByMonth = spendingRollupService.getMonthlyTotalsForYear(userId, year);
 
         // Calculate monthly expenses breakdown - only include months with spending
         Map<String, Double> monthlyExpenses = new LinkedHashMap<>(); // Use LinkedHashMap to maintain order
@@ -91,18 +74,14 @@ public class ReportService {
                               "July", "August", "September", "October", "November", "December"};
         
         for (int m = 1; m <= 12; m++) {
-            final int month = m;
-            double monthTotal = expenses.stream()
-                    .filter(expense -> expense.getDate().getMonthValue() == month)
-                    .mapToDouble(Expense::getAmount)
-                    .sum();
+            double monthTotal = totalsByMonth.getOrDefault(m, 0.0);
             // Only add months that have spending (value > 0)
             if (monthTotal > 0) {
                 monthlyExpenses.put(monthNames[m-1], monthTotal);
             }
         }
 
-        double totalSpent = expenses.stream().mapToDouble(Expense::getAmount).sum();
+        double totalSpent = totalsByMonth.values().stream().mapToDouble(Double::doubleValue).sum();
 
         // ✅ For annual reports, show current month's budget and remaining instead of annual totals
         LocalDate now = LocalDate.now();
@@ -116,10 +95,7 @@ public class ReportService {
         double budget = getUserBudget(userId, budgetMonth, budgetYear);
         
         // Calculate current month's spending for remaining calculation
-        double currentMonthSpent = expenses.stream()
-                .filter(expense -> expense.getDate().getMonthValue() == budgetMonth)
-                .mapToDouble(Expense::getAmount)
-                .sum();
+        double currentMonthSpent = totalsByMonth.getOrDefault(budgetMonth, 0.0);
         
         double remaining = budget - currentMonthSpent;
 
@@ -128,7 +104,7 @@ public class ReportService {
 
     // Helper: get budget for a specific month/year
     private double getUserBudget(Long userId, Integer month, Integer year) {
-        return budgetService.getBudgetStatus(userId, month, year).getAmount();
+        return budgetService.findBudgetAmount(userId, month, year).orElse(0.0);
     }
 
     // Helper: get month name from month number
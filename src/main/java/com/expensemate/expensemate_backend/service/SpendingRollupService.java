@@ -0,0 +1,128 @@
+package com.expensemate.expensemate_backend.service;
+
+import com.expensemate.expensemate_backend.model.Expense;
+import com.expensemate.expensemate_backend.model.MonthlySpending;
+import com.expensemate.expensemate_backend.repository.BudgetRepository;
+import com.expensemate.expensemate_backend.repository.ExpenseRepository;
+import com.expensemate.expensemate_backend.repository.MonthlySpendingRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the per-user monthly/category spending rollup in step with the expenses table.
+ *
+ * Every expense write goes through {@link #recordExpense} / {@link #removeExpense} inside the
+ * caller's transaction, so reads can use a handful of rollup rows instead of re-summing expenses.
+ * The same delta is applied to the matching budget's running {@code spent} counter.
+ */
+@Service
+public class SpendingRollupService {
+
+    // Rollup key for expenses without a category (part of the unique key, so it cannot be NULL)
+    static final String NO_CATEGORY = "";
+
+    private final MonthlySpendingRepository monthlySpendingRepository;
+    private final ExpenseRepository expenseRepository;
+    private final BudgetRepository budgetRepository;
+
+    public SpendingRollupService(MonthlySpendingRepository monthlySpendingRepository,
+                                 ExpenseRepository expenseRepository,
+                                 BudgetRepository budgetRepository) {
+        this.monthlySpendingRepository = monthlySpendingRepository;
+        this.expenseRepository = expenseRepository;
+        this.budgetRepository = budgetRepository;
+    }
+
+    // ----------------- Write side -----------------
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpense(Expense expense) {
+        apply(expense, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeExpense(Expense expense) {
+        apply(expense, -1);
+    }
+
+    // Add an arbitrary delta for one (user, year, month, category) bucket
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDelta(Long userId, int year, int month, String category, double amount, long count) {
+        monthlySpendingRepository.upsertDelta(userId, year, month, toKey(category), amount, count);
+        if (amount != 0) {
+            budgetRepository.incrementSpent(userId, month, year, amount);
+        }
+    }
+
+    private void apply(Expense expense, int sign) {
+        if (expense.getUser() == null || expense.getDate() == null) {
+            return;
+        }
+        double amount = expense.getAmount() != null ? expense.getAmount() : 0.0;
+        applyDelta(expense.getUser().getId(),
+                expense.getDate().getYear(),
+                expense.getDate().getMonthValue(),
+                expense.getCategory(),
+                sign * amount,
+                sign);
+    }
+
+    // ----------------- Read side -----------------
+
+    public double getMonthlyTotal(Long userId, int month, int year) {
+        return monthlySpendingRepository.sumTotalForUserAndMonth(userId, month, year);
+    }
+
+    public double getCategoryTotal(Long userId, String category, int month, int year) {
+        return monthlySpendingRepository.sumTotalForCategory(userId, toKey(category), month, year);
+    }
+
+    public Map<String, Double> getCategoryTotals(Long userId, int month, int year) {
+        return toCategoryMap(monthlySpendingRepository.findForUserAndMonth(userId, month, year));
+    }
+
+    public Map<String, Double> getCategoryTotalsForYear(Long userId, int year) {
+        return toCategoryMap(monthlySpendingRepository.findForUserAndYear(userId, year));
+    }
+
+    // Month number (1-12) -> total spent, only months with expenses
+    public Map<Integer, Double> getMonthlyTotalsForYear(Long userId, int year) {
+        Map<Integer, Double> totals = new HashMap<>();
+        for (MonthlySpending row : monthlySpendingRepository.findForUserAndYear(userId, year)) {
+            totals.merge(row.getMonth(), row.getTotal(), Double::sum);
+        }
+        return totals;
+    }
+
+    private Map<String, Double> toCategoryMap(List<MonthlySpending> rows) {
+        Map<String, Double> map = new HashMap<>();
+        for (MonthlySpending row : rows) {
+            map.merge(row.getCategory(), row.getTotal(), Double::sum);
+        }
+        return map;
+    }
+
+    // ----------------- Backfill -----------------
+
+    // Populate the rollup once for databases that already hold expenses; the rebuild is an
+    // idempotent upsert, so nodes starting together cannot double-count
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (monthlySpendingRepository.count() == 0 && expenseRepository.count() > 0) {
+            int rows = monthlySpendingRepository.rebuildFromExpenses();
+            System.out.println("📊 SpendingRollupService: Backfilled " + rows + " monthly spending rows");
+        }
+    }
+
+    private static String toKey(String category) {
+        return category != null ? category : NO_CATEGORY;
+    }
+}
@@ -0,0 +1,90 @@
+package com.expensemate.expensemate_backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timer wheel: {@value #LEVELS} levels of {@value #SLOTS} slots.
+ *
+ * Level 0 slots are one tick wide, each higher level is {@value #SLOTS} times coarser. Scheduling
+ * is O(1); advancing touches only the due level-0 slot, plus a higher-level slot whenever the
+ * lower level wraps (its entries are then cascaded down). Not thread-safe: callers synchronize.
+ */
+class TimerWheel<T> {
+
+    private static final int LEVELS = 3;
+    private static final int SLOTS = 64;
+    private static final int SLOT_BITS = 6;
+
+    private record Timeout<T>(T item, long deadlineTick) {}
+
+    private final long tickMillis;
+    private final List<List<List<Timeout<T>>>> wheels = new ArrayList<>();
+    private long currentTick;
+
+    TimerWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        for (int level = 0; level < LEVELS; level++) {
+            List<List<Timeout<T>>> slots = new ArrayList<>(SLOTS);
+            for (int i = 0; i < SLOTS; i++) {
+                slots.add(new ArrayList<>());
+            }
+            wheels.add(slots);
+        }
+    }
+
+    void schedule(T item, long deadlineMillis) {
+        place(new Timeout<>(item, Math.max(deadlineMillis / tickMillis, currentTick + 1)));
+    }
+
+    // Move time forward to nowMillis, handing every item whose deadline passed to onExpire
+    void advance(long nowMillis, Consumer<T> onExpire) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            // Cascade coarser slots that just came due, top level first
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    List<Timeout<T>> slot = slotAt(level, currentTick);
+                    List<Timeout<T>> due = new ArrayList<>(slot);
+                    slot.clear();
+                    due.forEach(this::place);
+                }
+            }
+
+            List<Timeout<T>> slot = slotAt(0, currentTick);
+            if (slot.isEmpty()) {
+                continue;
+            }
+            List<Timeout<T>> due = new ArrayList<>(slot);
+            slot.clear();
+            for (Timeout<T> timeout : due) {
+                if (timeout.deadlineTick() <= currentTick) {
+                    onExpire.accept(timeout.item());
+                } else {
+                    place(timeout); // deadline was beyond the wheel's range; re-file it
+                }
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long remaining = timeout.deadlineTick() - currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (remaining < (1L << (SLOT_BITS * (level + 1)))) {
+                slotAt(level, timeout.deadlineTick()).add(timeout);
+                return;
+            }
+        }
+        // Beyond the top level: park in the farthest top-level slot, it is re-filed when cascaded
+        int top = LEVELS - 1;
+        slotAt(top, currentTick + ((long) (SLOTS - 1) << (SLOT_BITS * top))).add(timeout);
+    }
+
+    private List<Timeout<T>> slotAt(int level, long tick) {
+        return wheels.get(level).get((int) ((tick >>> (SLOT_BITS * level)) & (SLOTS - 1)));
+    }
+}
@@ -0,0 +1,100 @@
+package com.expensemate.expensemate_backend.service;
+
+import com.expensemate.expensemate_backend.model.TokenRevocation;
+import com.expensemate.expensemate_backend.repository.TokenRevocationRepository;
+import com.expensemate.expensemate_backend.security.JwtPrincipal;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "Tokens issued before T are invalid" per user, held in memory for the JWT filter.
+ *
+ * Only users revoked within the last token lifetime are kept (older watermarks cannot match a
+ * live token), so the map stays small. The table is the source of truth: it is loaded before
+ * the server accepts requests and re-read periodically to pick up revocations from other nodes.
+ */
+@Service
+public class TokenRevocationService {
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final long tokenLifetimeMillis;
+
+    // userId -> watermark (epoch millis); replaced wholesale by refresh(), so writers lock
+    private volatile Map<Long, Long> watermarks = new ConcurrentHashMap<>();
+
+    public TokenRevocationService(TokenRevocationRepository tokenRevocationRepository,
+                                  @Value("${app.jwt.expiration}") long tokenLifetimeMillis) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+    }
+
+    // Invalidate every token the user holds right now. Joins the caller's transaction; the
+    // in-memory watermark is only raised once that commits, so a rollback revokes nothing.
+    public void revokeAllTokens(Long userId) {
+        long now = Instant.now().toEpochMilli();
+        tokenRevocationRepository.raiseWatermark(userId, now);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(userId, now);
+                }
+            });
+        } else {
+            remember(userId, now);
+        }
+    }
+
+    // Revoked when issued in or before the watermark millisecond; tokens without `iat` are revoked too.
+    // Older tokens only carry a second-precision `iat`, i.e. the start of their second.
+    public boolean isRevoked(JwtPrincipal principal) {
+        if (principal.userId() == null) {
+            return false;
+        }
+        Long watermark = watermarks.get(principal.userId());
+        if (watermark == null) {
+            return false;
+        }
+        return principal.issuedAt() == null || principal.issuedAt().toEpochMilli() <= watermark;
+    }
+
+    @PostConstruct
+    public void load() {
+        tokenRevocationRepository.convertSecondWatermarksToMillis();
+        tokenRevocationRepository.revokeInactiveUsers();
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-ms}",
+               initialDelayString = "${app.security.revocation.refresh-ms}")
+    public void refresh() {
+        long since = Instant.now().toEpochMilli() - tokenLifetimeMillis;
+        tokenRevocationRepository.deleteExpired(since);
+
+        Map<Long, Long> loaded = new ConcurrentHashMap<>();
+        for (TokenRevocation revocation : tokenRevocationRepository.findByRevokedBeforeGreaterThan(since)) {
+            loaded.put(revocation.getUserId(), revocation.getRevokedBefore());
+        }
+        // Keep local revocations that raced the reload; remember() cannot write to the old map meanwhile
+        synchronized (this) {
+            watermarks.forEach((userId, watermark) -> {
+                if (watermark > since) {
+                    loaded.merge(userId, watermark, Math::max);
+                }
+            });
+            watermarks = loaded;
+        }
+    }
+
+    private synchronized void remember(Long userId, long watermark) {
+        watermarks.merge(userId, watermark, Math::max);
+    }
+}
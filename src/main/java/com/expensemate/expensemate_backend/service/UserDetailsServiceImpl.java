@@ -2,19 +2,36 @@ package com.expensemate.expensemate_backend.service;
 
 import com.expensemate.expensemate_backend.model.User;
 import com.expensemate.expensemate_backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    // Active users by normalized email; the JWT filter resolves every request through here.
+    // Entries are evicted whenever active flag, role, email or password change (see evict).
+    private final Cache<String, UserDetailsImpl> userCache;
+
+    public UserDetailsServiceImpl(UserRepository userRepository,
+                                  @Value("${app.security.user-cache.max-size}") long cacheMaxSize,
+                                  @Value("${app.security.user-cache.ttl-seconds}") long cacheTtlSeconds) {
         this.userRepository = userRepository;
+        this.userCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
     }
 
     @Override
@@ -26,11 +43,16 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         // ✅ Normalize email for case-insensitive lookup
         String normalizedEmail = email.toLowerCase();
 
+        UserDetailsImpl cached = userCache.getIfPresent(normalizedEmail);
+        if (cached != null) {
+            return cached;
+        }
+
         // ✅ Fetch user or throw if not found
         User user = userRepository.findByEmail(normalizedEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + normalizedEmail));
 
-        // ✅ Check if user is deactivated
+        // ✅ Check if user is deactivated (never cached, so reactivation needs no eviction)
         if (!user.isActive()) {
             throw new DisabledException("User account is deactivated. Please contact admin.");
         }
@@ -39,6 +61,26 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         System.out.println("Authenticated user: " + normalizedEmail + " with role: " + user.getRole());
 
         // ✅ Return UserDetails wrapper
-        return new UserDetailsImpl(user);
+        UserDetailsImpl details = new UserDetailsImpl(user);
+        userCache.put(normalizedEmail, details);
+        return details;
+    }
+
+    // Drop a cached user now and again once the surrounding transaction commits,
+    // so a request racing the update cannot re-cache the old row.
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        String normalizedEmail = email.toLowerCase();
+        userCache.invalidate(normalizedEmail);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    userCache.invalidate(normalizedEmail);
+                }
+            });
+        }
     }
 }
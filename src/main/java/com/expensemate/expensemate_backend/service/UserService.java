@@ -1,34 +1,40 @@
 package com.expensemate.expensemate_backend.service;
 
 import com.expensemate.expensemate_backend.model.User;
-import com.expensemate.expensemate_backend.model.PasswordResetToken;
 import com.expensemate.expensemate_backend.repository.UserRepository;
-import com.expensemate.expensemate_backend.repository.PasswordResetTokenRepository;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.util.Optional;
-import java.util.Random;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final PasswordResetTokenRepository tokenRepository;
+    private final OtpStore otpStore;
+    private final Duration otpTtl;
+    private final SecureRandom otpRandom = new SecureRandom();
     private final ApplicationEventPublisher eventPublisher;
+    private final UserDetailsServiceImpl userDetailsService;
 
     public UserService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
-                       PasswordResetTokenRepository tokenRepository,
-                       ApplicationEventPublisher eventPublisher) {
+                       OtpStore otpStore,
+                       ApplicationEventPublisher eventPublisher,
+                       UserDetailsServiceImpl userDetailsService,
+                       @Value("${app.otp.ttl-seconds}") long otpTtlSeconds) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.tokenRepository = tokenRepository;
+        this.otpStore = otpStore;
+        this.otpTtl = Duration.ofSeconds(otpTtlSeconds);
         this.eventPublisher = eventPublisher;
+        this.userDetailsService = userDetailsService;
     }
 
     // Fetch user by email (from JWT)
@@ -41,6 +47,7 @@ public class UserService {
     public Optional<User> updateProfile(String email, User updatedUser) {
         return userRepository.findByEmail(email.toLowerCase())
                 .map(user -> {
+                    userDetailsService.evict(user.getEmail());
                     user.setUsername(updatedUser.getUsername());
                     user.setEmail(updatedUser.getEmail().toLowerCase());
 
@@ -48,7 +55,9 @@ public class UserService {
                         user.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
                     }
 
-                    return userRepository.save(user);
+                    User saved = userRepository.save(user);
+                    userDetailsService.evict(saved.getEmail());
+                    return saved;
                 });
     }
 
@@ -59,17 +68,10 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // generate 6-digit OTP
-        String otp = String.format("%06d", new Random().nextInt(999999));
+        String otp = String.format("%06d", otpRandom.nextInt(1_000_000));
 
-        // remove old token if exists
-        tokenRepository.deleteByEmail(user.getEmail());
-
-        PasswordResetToken token = new PasswordResetToken();
-        token.setEmail(user.getEmail());
-        token.setOtp(otp);
-        token.setExpirationTime(Instant.now().plusSeconds(600).toEpochMilli()); // valid for 10 mins
-
-        tokenRepository.save(token);
+        // replaces any previous OTP for this email
+        otpStore.save(user.getEmail(), otp, otpTtl);
 
         // Publish an event to send email after transaction commits
         eventPublisher.publishEvent(new OtpGeneratedEvent(this, user.getEmail(), otp));
@@ -78,17 +80,7 @@ public class UserService {
     // Verify OTP
     @Transactional
     public boolean verifyOtp(String email, String otp) {
-        Optional<PasswordResetToken> tokenOpt = tokenRepository.findByEmailAndOtp(email.toLowerCase(), otp);
-        if (tokenOpt.isEmpty()) return false;
-
-        PasswordResetToken token = tokenOpt.get();
-
-        if (Instant.now().toEpochMilli() > token.getExpirationTime()) {
-            tokenRepository.delete(token); // cleanup expired token
-            return false;
-        }
-
-        return true;
+        return otpStore.verify(email.toLowerCase(), otp);
     }
 
     // Reset password after OTP verification
@@ -99,8 +91,9 @@ public class UserService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        userDetailsService.evict(user.getEmail());
 
         // cleanup all OTPs for this user
-        tokenRepository.deleteByEmail(user.getEmail());
+        otpStore.remove(user.getEmail());
     }
 }
@@ -0,0 +1,42 @@
+package com.expensemate.expensemate_backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class AsyncConfigTest {
+
+    @Test
+    void fullExpenseEventQueueDropsAndCountsInsteadOfRunningOnTheCaller() throws InterruptedException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ThreadPoolTaskExecutor executor = new AsyncConfig(false).expenseEventExecutor(meterRegistry, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> awaitQuietly(release)); // occupies the only thread
+            executor.execute(() -> awaitQuietly(release)); // fills the queue
+
+            AtomicBoolean ranOnCaller = new AtomicBoolean();
+            executor.execute(() -> ranOnCaller.set(true));
+
+            assertFalse(ranOnCaller.get());
+            assertEquals(1.0, meterRegistry.counter("expense.events.rejected").count());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
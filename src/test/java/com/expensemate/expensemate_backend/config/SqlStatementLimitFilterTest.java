@@ -0,0 +1,57 @@
+package com.expensemate.expensemate_backend.config;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlStatementLimitFilterTest {
+
+    private static int limit;
+
+    // Same limit the "test" profile registers the filter with
+    @BeforeAll
+    static void loadTestProfileLimit() throws IOException {
+        limit = Integer.parseInt(PropertiesLoaderUtils
+                .loadProperties(new ClassPathResource("application-test.properties"))
+                .getProperty("app.sql.statement-limit"));
+    }
+
+    @Test
+    void requestOverTheLimitFails() {
+        SqlStatementLimitFilter filter = new SqlStatementLimitFilter(limit);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/expenses"), new MockHttpServletResponse(),
+                        (request, response) -> issueStatements(limit + 1)));
+
+        assertTrue(e.getMessage().contains("GET /api/expenses issued " + (limit + 1) + " SQL statements"));
+        assertEquals(0, SqlStatementCounter.current());
+    }
+
+    @Test
+    void requestAtTheLimitPasses() {
+        SqlStatementLimitFilter filter = new SqlStatementLimitFilter(limit);
+
+        assertDoesNotThrow(() ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/expenses"), new MockHttpServletResponse(),
+                        (request, response) -> issueStatements(limit)));
+    }
+
+    // What Hibernate does for every statement it prepares
+    private static void issueStatements(int count) {
+        SqlStatementCounter counter = new SqlStatementCounter();
+        for (int i = 0; i < count; i++) {
+            counter.inspect("SELECT 1");
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.expensemate.expensemate_backend.controller;
+
+import com.expensemate.expensemate_backend.config.SqlStatementLimitFilter;
+import com.expensemate.expensemate_backend.model.Expense;
+import com.expensemate.expensemate_backend.model.Role;
+import com.expensemate.expensemate_backend.model.User;
+import com.expensemate.expensemate_backend.repository.ExpenseRepository;
+import com.expensemate.expensemate_backend.repository.NotificationRepository;
+import com.expensemate.expensemate_backend.repository.NotificationStateRepository;
+import com.expensemate.expensemate_backend.repository.UserRepository;
+import com.expensemate.expensemate_backend.security.JwtUtil;
+import com.expensemate.expensemate_backend.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Needs the MySQL database, like the other @SpringBootTest classes.
+// The "test" profile registers SqlStatementLimitFilter (app.sql.statement-limit), which throws out of
+// perform() when a request issues more statements than the limit, so an N+1 on these lists fails here.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ListEndpointStatementLimitTest {
+
+    private static final int ROWS = 15;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationStateRepository notificationStateRepository;
+
+    // Fails the context if the profile stops registering the limit, rather than passing vacuously
+    @Autowired
+    private FilterRegistrationBean<SqlStatementLimitFilter> sqlStatementLimitFilter;
+
+    private User admin;
+    private User user;
+    private final List<Expense> expenses = new ArrayList<>();
+
+    @BeforeEach
+    void seedRows() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        admin = new User("limit-admin-" + suffix, "limit-admin-" + suffix + "@example.com", "x");
+        admin.setRole(Role.ROLE_ADMIN);
+        admin = userRepository.save(admin);
+        user = userRepository.save(new User("limit-user-" + suffix, "limit-user-" + suffix + "@example.com", "x"));
+
+        for (int i = 0; i < ROWS; i++) {
+            expenses.add(expenseRepository.save(Expense.builder()
+                    .amount(10.0 + i)
+                    .category(i % 2 == 0 ? "Food" : "Travel")
+                    .description("row " + i)
+                    .date(LocalDate.now().minusDays(i))
+                    .user(i % 2 == 0 ? user : admin)
+                    .build()));
+            notificationService.createNotification(user.getId(), "notification " + i);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        expenseRepository.deleteAll(expenses);
+        notificationRepository.deleteByUser(user);
+        notificationStateRepository.deleteById(user.getId());
+        userRepository.delete(user);
+        userRepository.delete(admin);
+    }
+
+    @Test
+    void adminExpenseListStaysWithinTheStatementLimit() throws Exception {
+        mockMvc.perform(get("/api/admin/expenses").header(HttpHeaders.AUTHORIZATION, bearer(admin)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void dashboardRecentExpensesStayWithinTheStatementLimit() throws Exception {
+        mockMvc.perform(get("/api/admin/dashboard").header(HttpHeaders.AUTHORIZATION, bearer(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recentExpenses.length()").value(10));
+    }
+
+    @Test
+    void notificationListStaysWithinTheStatementLimit() throws Exception {
+        mockMvc.perform(get("/api/notifications").header(HttpHeaders.AUTHORIZATION, bearer(user)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(greaterThanOrEqualTo(ROWS))); // plus any broadcasts
+    }
+
+    private String bearer(User owner) {
+        return "Bearer " + jwtUtil.generateToken(owner.getId(), owner.getEmail(), owner.getRole().name(), owner.getUsername());
+    }
+}
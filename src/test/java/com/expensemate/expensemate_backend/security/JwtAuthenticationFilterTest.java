@@ -0,0 +1,70 @@
+package com.expensemate.expensemate_backend.security;
+
+import com.expensemate.expensemate_backend.repository.TokenRevocationRepository;
+import com.expensemate.expensemate_backend.service.TokenRevocationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+class JwtAuthenticationFilterTest {
+
+    private static final long USER_ID = 7L;
+
+    private final JwtUtil jwtUtil =
+            new JwtUtil("mysupersecretkey123456789012345678901234567890", 86400000L, 100, new SimpleMeterRegistry());
+    private final TokenRevocationService tokenRevocationService =
+            new TokenRevocationService(mock(TokenRevocationRepository.class), 86400000L);
+    private final JwtAuthenticationFilter filter =
+            new JwtAuthenticationFilter(jwtUtil, mock(UserDetailsService.class), tokenRevocationService);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void profileEndpointsAreAuthenticatedFromTheToken() throws Exception {
+        String token = jwtUtil.generateToken(USER_ID, "user@example.com", "ROLE_USER", "user");
+
+        Authentication authentication = authenticate("/api/auth/profile", token);
+
+        assertNotNull(authentication);
+        assertEquals(USER_ID, ((JwtPrincipal) authentication.getPrincipal()).userId());
+    }
+
+    @Test
+    void revokedTokenIsNotAcceptedOnAuthEndpoints() throws Exception {
+        String token = jwtUtil.generateToken(USER_ID, "user@example.com", "ROLE_USER", "user");
+        Thread.sleep(2);
+        tokenRevocationService.revokeAllTokens(USER_ID);
+
+        assertNull(authenticate("/api/auth/profile", token));
+        assertNull(authenticate("/api/auth/change-password", token));
+    }
+
+    @Test
+    void publicAuthEndpointsSkipTokenChecks() throws Exception {
+        String token = jwtUtil.generateToken(USER_ID, "user@example.com", "ROLE_USER", "user");
+
+        assertNull(authenticate("/api/auth/login", token));
+    }
+
+    private Authentication authenticate(String path, String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
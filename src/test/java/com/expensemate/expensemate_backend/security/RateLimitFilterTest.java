@@ -0,0 +1,119 @@
+package com.expensemate.expensemate_backend.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitFilterTest {
+
+    private static final int EMAIL_CAPACITY = 3;
+
+    // Generous IP limit so only the per-email limit can trigger
+    private final RateLimitFilter filter =
+            new RateLimitFilter(4, 1000, 1000, 1000, EMAIL_CAPACITY, 1, new SimpleMeterRegistry());
+
+    @Test
+    void chunkedBodiesAreStillLimitedByEmail() throws Exception {
+        for (int i = 0; i < EMAIL_CAPACITY; i++) {
+            assertEquals(200, send(chunkedLogin("victim@example.com", "10.0.0." + i)).getStatus());
+        }
+        MockHttpServletResponse rejected = send(chunkedLogin("victim@example.com", "10.0.1.1"));
+        assertEquals(429, rejected.getStatus());
+        assertTrue(Integer.parseInt(rejected.getHeader("Retry-After")) >= 1);
+    }
+
+    @Test
+    void oversizedChunkedBodyIsRefused() throws Exception {
+        MockHttpServletRequest request = chunked("/api/auth/login", "10.0.0.1", "x".repeat(8 * 1024 + 1));
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(413, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void cachedBodyIsReplayedToTheController() throws Exception {
+        String body = "{\"email\":\"someone@example.com\",\"password\":\"secret\"}";
+        AtomicReference<byte[]> seen = new AtomicReference<>();
+
+        filter.doFilter(chunked("/api/auth/login", "10.0.0.1", body), new MockHttpServletResponse(),
+                (request, response) -> seen.set(request.getInputStream().readAllBytes()));
+
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), seen.get());
+    }
+
+    @Test
+    void readListenerIsToldWhenTheCachedBodyIsConsumed() throws Exception {
+        AtomicBoolean allDataRead = new AtomicBoolean();
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilter(chunked("/api/auth/login", "10.0.0.1", "{\"email\":\"a@example.com\"}"),
+                new MockHttpServletResponse(), (request, response) -> {
+                    ServletInputStream in = request.getInputStream();
+                    in.setReadListener(new ReadListener() {
+                        @Override
+                        public void onDataAvailable() throws IOException {
+                            seen.set(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                        }
+
+                        @Override
+                        public void onAllDataRead() {
+                            allDataRead.set(true);
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                        }
+                    });
+                });
+
+        assertEquals("{\"email\":\"a@example.com\"}", seen.get());
+        assertTrue(allDataRead.get());
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest chunkedLogin(String email, String ip) {
+        return chunked("/api/auth/login", ip, "{\"email\":\"" + email + "\",\"password\":\"guess\"}");
+    }
+
+    // Transfer-Encoding: chunked, i.e. no Content-Length
+    private static MockHttpServletRequest chunked(String uri, String ip, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri) {
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,86 @@
+package com.expensemate.expensemate_backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedRateLimiterTest {
+
+    @Test
+    void bucketAllowsCapacityThenReportsTheWaitForTheNextToken() {
+        StripedRateLimiter limiter = new StripedRateLimiter(4, 100, 3, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        }
+        long wait = limiter.tryAcquire("10.0.0.1");
+
+        // One token per minute
+        assertTrue(wait > TimeUnit.SECONDS.toNanos(59) && wait <= TimeUnit.MINUTES.toNanos(1), "wait " + wait);
+    }
+
+    @Test
+    void tokensRefillOverTime() throws InterruptedException {
+        // 6000 per minute: one token every 10 ms
+        StripedRateLimiter limiter = new StripedRateLimiter(4, 100, 1, 6000);
+
+        assertEquals(0, limiter.tryAcquire("key"));
+        long wait = limiter.tryAcquire("key");
+        assertTrue(wait > 0);
+
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(0, limiter.tryAcquire("key"));
+    }
+
+    @Test
+    void keysHaveIndependentBucketsEvenWithinOneStripe() {
+        StripedRateLimiter limiter = new StripedRateLimiter(1, 100, 1, 1);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+        assertEquals(0, limiter.tryAcquire("b"));
+    }
+
+    @Test
+    void eachStripeIsCappedAtItsShareOfTheKeys() {
+        StripedRateLimiter limiter = new StripedRateLimiter(4, 8, 5, 1);
+
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("10.0." + (i / 256) + "." + (i % 256));
+        }
+
+        assertTrue(limiter.size() <= 8, "size " + limiter.size());
+    }
+
+    @Test
+    void newKeysAreRefusedRatherThanEvictingActiveBuckets() {
+        StripedRateLimiter limiter = new StripedRateLimiter(1, 2, 1, 1);
+
+        assertEquals(0, limiter.tryAcquire("victim"));
+        assertEquals(0, limiter.tryAcquire("b"));
+
+        // Stripe is full of buckets still counting down, so fresh keys wait instead of pushing one out
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("attacker-" + i) > 0);
+        }
+
+        assertEquals(2, limiter.size());
+        assertTrue(limiter.tryAcquire("victim") > 0);
+    }
+
+    @Test
+    void refilledBucketsAreForgotten() throws InterruptedException {
+        // Capacity 1 at 6000 per minute: a bucket is full again 10 ms after its last use
+        StripedRateLimiter limiter = new StripedRateLimiter(1, 100, 1, 6000);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        TimeUnit.MILLISECONDS.sleep(20);
+        limiter.tryAcquire("c");
+
+        assertEquals(1, limiter.size());
+    }
+}
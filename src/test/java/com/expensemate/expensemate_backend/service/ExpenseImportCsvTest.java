@@ -0,0 +1,97 @@
+package com.expensemate.expensemate_backend.service;
+
+import com.expensemate.expensemate_backend.dto.ExpenseImportResultDto;
+import com.expensemate.expensemate_backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.expensemate.expensemate_backend.service.ExpenseImportService.parseCsvLine;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExpenseImportCsvTest {
+
+    @Test
+    void plainFieldsAreSplitOnCommas() {
+        assertEquals(List.of("12.50", "Food", "Lunch", "2024-03-09"), parseCsvLine("12.50,Food,Lunch,2024-03-09"));
+    }
+
+    @Test
+    void emptyFieldsAreKept() {
+        assertEquals(List.of("12.50", "", "", "2024-03-09"), parseCsvLine("12.50,,,2024-03-09"));
+        assertEquals(List.of("12.50", "Food", ""), parseCsvLine("12.50,Food,"));
+        assertEquals(List.of(""), parseCsvLine(""));
+    }
+
+    @Test
+    void quotedFieldMayContainCommas() {
+        assertEquals(List.of("12.50", "Food", "Lunch, with team", "2024-03-09"),
+                parseCsvLine("12.50,Food,\"Lunch, with team\",2024-03-09"));
+    }
+
+    @Test
+    void doubledQuoteInsideQuotesIsAnEscapedQuote() {
+        assertEquals(List.of("12.50", "Food", "The \"big\" lunch", "2024-03-09"),
+                parseCsvLine("12.50,Food,\"The \"\"big\"\" lunch\",2024-03-09"));
+    }
+
+    @Test
+    void fieldConsistingOfOnlyAnEscapedQuote() {
+        assertEquals(List.of("\"", "x"), parseCsvLine("\"\"\"\",x"));
+    }
+
+    @Test
+    void emptyQuotedFieldIsEmpty() {
+        assertEquals(List.of("12.50", "", "Lunch"), parseCsvLine("12.50,\"\",Lunch"));
+    }
+
+    @Test
+    void unterminatedQuoteRunsToTheEndOfTheLine() {
+        assertEquals(List.of("12.50", "Lunch, 2024-03-09"), parseCsvLine("12.50,\"Lunch, 2024-03-09"));
+    }
+
+    // ----------------- Header Detection -----------------
+
+    @Test
+    void headerAfterBomAndBlankLinesIsRecognised() throws IOException {
+        ExpenseImportResultDto result = importCsv("\uFEFF\n\n  \namount,date,category\n12.50,2024-03-09,Food\n");
+
+        assertNull(result.getError());
+        assertEquals(1, result.getImported());
+        assertEquals(0, result.getSkipped());
+    }
+
+    @Test
+    void bomBeforeHeaderOnTheFirstLineIsIgnored() throws IOException {
+        ExpenseImportResultDto result = importCsv("\uFEFFdate,amount\n2024-03-09,12.50\n");
+
+        assertNull(result.getError());
+        assertEquals(1, result.getImported());
+    }
+
+    @Test
+    void headerWithoutRequiredColumnsIsAnError() throws IOException {
+        ExpenseImportResultDto result = importCsv("amount,category\n12.50,Food\n");
+
+        assertEquals("CSV header is missing required column(s): date", result.getError());
+        assertEquals(0, result.getImported());
+    }
+
+    private static ExpenseImportResultDto importCsv(String body) throws IOException {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        ExpenseImportService service = new ExpenseImportService(mock(JdbcTemplate.class), mock(TransactionTemplate.class),
+                new ObjectMapper(), userRepository, mock(SpendingRollupService.class), mock(NotificationService.class),
+                mock(ExpenseEventHandler.class), 10);
+        return service.importCsv(1L, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,117 @@
+package com.expensemate.expensemate_backend.service;
+
+import com.expensemate.expensemate_backend.dto.CursorPageDto;
+import com.expensemate.expensemate_backend.dto.ExpenseFilter;
+import com.expensemate.expensemate_backend.dto.ExpenseSummaryDto;
+import com.expensemate.expensemate_backend.repository.ExpenseRepository;
+import com.expensemate.expensemate_backend.service.ExpenseService.CursorPosition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseServiceTest {
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @InjectMocks
+    private ExpenseService expenseService;
+
+    // ----------------- Cursor -----------------
+
+    @Test
+    void cursorRoundTrips() {
+        CursorPosition position = new CursorPosition(LocalDate.of(2024, 3, 9), 1234L);
+
+        assertEquals("2024-03-09:1234", position.format());
+        assertEquals(position, CursorPosition.parse(position.format()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2024-03-09", "2024-03-09:", "2024-3-9:1", "2024-03-09:abc", "1234", ":1234"})
+    void malformedCursorIsRejected(String cursor) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> CursorPosition.parse(cursor));
+        assertEquals("Invalid cursor: " + cursor, e.getMessage());
+    }
+
+    @Test
+    void nextCursorPointsAtTheLastExpenseOfAFullPage() {
+        when(expenseRepository.findSummaries(any(), any(), eq(0L), eq(3))).thenReturn(List.of(
+                expense(30L, LocalDate.of(2024, 3, 9)),
+                expense(20L, LocalDate.of(2024, 3, 9)),
+                expense(10L, LocalDate.of(2024, 3, 1))));
+
+        CursorPageDto<ExpenseSummaryDto> page = expenseService.getExpensesByCursor(1L, new ExpenseFilter(), null, 2);
+
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.isHasNext());
+        assertEquals("2024-03-09:20", page.getNextCursor());
+    }
+
+    @Test
+    void lastPageHasNoNextCursor() {
+        when(expenseRepository.findSummaries(any(), any(), eq(0L), eq(3))).thenReturn(List.of(
+                expense(10L, LocalDate.of(2024, 3, 1))));
+
+        CursorPageDto<ExpenseSummaryDto> page =
+                expenseService.getExpensesByCursor(1L, new ExpenseFilter(), "2024-03-09:20", 2);
+
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    // ----------------- Sort -----------------
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"  "})
+    void missingSortIsNewestFirst(String sort) {
+        assertEquals(Sort.by(Sort.Direction.DESC, "date", "id"), ExpenseService.parseSort(sort));
+    }
+
+    @Test
+    void whitelistedFieldIsSortedWithIdAsTieBreaker() {
+        assertEquals(Sort.by(Sort.Direction.ASC, "amount").and(Sort.by(Sort.Direction.ASC, "id")),
+                ExpenseService.parseSort("amount,asc"));
+        assertEquals(Sort.by(Sort.Direction.DESC, "category").and(Sort.by(Sort.Direction.DESC, "id")),
+                ExpenseService.parseSort(" category , DESC "));
+    }
+
+    @Test
+    void directionDefaultsToDescending() {
+        assertEquals(Sort.by(Sort.Direction.DESC, "date").and(Sort.by(Sort.Direction.DESC, "id")),
+                ExpenseService.parseSort("date"));
+        assertEquals(Sort.by(Sort.Direction.DESC, "date").and(Sort.by(Sort.Direction.DESC, "id")),
+                ExpenseService.parseSort("date,sideways"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"description", "user.password", "id", "Amount", "date;drop table expenses", ",asc"})
+    void fieldsOutsideTheWhitelistAreRejected(String sort) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> ExpenseService.parseSort(sort));
+        assertTrue(e.getMessage().startsWith("Unsupported sort field: "));
+    }
+
+    private static ExpenseSummaryDto expense(Long id, LocalDate date) {
+        return new ExpenseSummaryDto(id, 10.0, "Food", null, date, false, 1L);
+    }
+}
@@ -0,0 +1,66 @@
+package com.expensemate.expensemate_backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryOtpStoreTest {
+
+    private final InMemoryOtpStore store = new InMemoryOtpStore(3);
+
+    @Test
+    void correctOtpVerifiesWithoutUsingAnAttempt() {
+        store.save("a@example.com", "123456", Duration.ofMinutes(10));
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(store.verify("a@example.com", "123456"));
+        }
+    }
+
+    @Test
+    void otpIsDiscardedOnceTheAttemptLimitIsReached() {
+        store.save("a@example.com", "123456", Duration.ofMinutes(10));
+
+        for (int i = 0; i < 3; i++) {
+            assertFalse(store.verify("a@example.com", "000000"));
+        }
+        assertFalse(store.verify("a@example.com", "123456"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void expiredOtpIsRejected() {
+        store.save("a@example.com", "123456", Duration.ofMillis(-1));
+
+        assertFalse(store.verify("a@example.com", "123456"));
+    }
+
+    @Test
+    void expiredEntriesAreReclaimedByTheWheel() throws InterruptedException {
+        store.save("a@example.com", "123456", Duration.ofMillis(10));
+        store.save("b@example.com", "654321", Duration.ofMinutes(10));
+
+        // The wheel ticks once a second; the first entry is due on the next tick at the latest
+        Thread.sleep(2100);
+        store.expire();
+
+        assertEquals(1, store.size());
+        assertTrue(store.verify("b@example.com", "654321"));
+    }
+
+    @Test
+    void newerOtpIsNotDroppedByTheOldOnesTimer() throws InterruptedException {
+        store.save("a@example.com", "111111", Duration.ofMillis(10));
+        store.save("a@example.com", "222222", Duration.ofMinutes(10));
+
+        Thread.sleep(2100);
+        store.expire();
+
+        assertTrue(store.verify("a@example.com", "222222"));
+        assertFalse(store.verify("a@example.com", "111111"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.expensemate.expensemate_backend.service;
+
+import com.expensemate.expensemate_backend.dto.NotificationDto;
+import com.expensemate.expensemate_backend.service.NotificationService.FeedPosition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NotificationFeedPositionTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2024, 3, 9, 14, 30, 5, 123_000_000);
+
+    @Test
+    void personalItemCursorRoundTrips() {
+        FeedPosition position = FeedPosition.of(new NotificationDto(42L, "hi", false, AT, false));
+
+        assertEquals("p:42:2024-03-09T14:30:05.123", position.format());
+        assertEquals(position, FeedPosition.parse(position.format()));
+    }
+
+    @Test
+    void broadcastCursorRoundTrips() {
+        FeedPosition position = FeedPosition.of(new NotificationDto(7L, "hi", true, AT, true));
+
+        assertEquals("b:7:2024-03-09T14:30:05.123", position.format());
+        assertEquals(position, FeedPosition.parse(position.format()));
+    }
+
+    @Test
+    void timestampOnAWholeMinuteRoundTrips() {
+        // LocalDateTime.toString() drops zero seconds, e.g. "2024-03-09T14:30"
+        FeedPosition position = new FeedPosition(false, 1L, LocalDateTime.of(2024, 3, 9, 14, 30));
+
+        assertEquals(position, FeedPosition.parse(position.format()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"x:1:2024-03-09T14:30", "p:1", "p:abc:2024-03-09T14:30", "p:1:2024-03-09", "b::2024-03-09T14:30"})
+    void malformedCursorIsRejected(String cursor) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> FeedPosition.parse(cursor));
+        assertEquals("Invalid cursor: " + cursor, e.getMessage());
+    }
+
+    @Test
+    void personalPositionIncludesEveryBroadcastAtTheSameTimestamp() {
+        FeedPosition position = new FeedPosition(false, 42L, AT);
+
+        assertEquals(42L, position.personalIdBound());
+        assertEquals(Long.MAX_VALUE, position.broadcastIdBound());
+    }
+
+    @Test
+    void broadcastPositionIncludesNoPersonalItemAtTheSameTimestamp() {
+        FeedPosition position = new FeedPosition(true, 7L, AT);
+
+        assertEquals(0L, position.personalIdBound());
+        assertEquals(7L, position.broadcastIdBound());
+    }
+}
@@ -0,0 +1,90 @@
+package com.expensemate.expensemate_backend.service;
+
+import com.expensemate.expensemate_backend.dto.NotificationDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NotificationStreamServiceTest {
+
+    private static final int BUFFER_SIZE = 4;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ThreadPoolTaskExecutor senders;
+
+    @AfterEach
+    void shutDown() {
+        if (senders != null) {
+            senders.shutdown();
+        }
+    }
+
+    @Test
+    void idleSubscribersBeyondTheSenderQueueAreNotDisconnected() throws InterruptedException {
+        // One sender with room for two queued drains, far fewer than the subscribers
+        senders = new ThreadPoolTaskExecutor();
+        senders.setCorePoolSize(1);
+        senders.setMaxPoolSize(1);
+        senders.setQueueCapacity(2);
+        senders.initialize();
+        NotificationStreamService service = service(senders);
+
+        int subscribers = 50;
+        for (long userId = 1; userId <= subscribers; userId++) {
+            service.subscribe(userId);
+        }
+
+        // Many more heartbeats than a buffer holds
+        for (int round = 0; round < 5 * BUFFER_SIZE; round++) {
+            service.heartbeat();
+            drainAll(service);
+        }
+        service.publishToAll(new NotificationDto(1L, "hello", false, LocalDateTime.now(), true));
+        drainAll(service);
+
+        assertEquals(0, service.pendingEvents());
+        assertEquals(0.0, meterRegistry.get("notification.stream.evicted").counter().count());
+        assertEquals(0.0, meterRegistry.get("notification.stream.backlogged").counter().count());
+        assertEquals(subscribers, meterRegistry.get("notification.stream.connections").gauge().value());
+    }
+
+    @Test
+    void fullBufferWaitingForASenderIsNotCountedAsASlowClient() {
+        AsyncTaskExecutor saturated = new ThreadPoolTaskExecutor() {
+            @Override
+            public void execute(Runnable task) {
+                throw new TaskRejectedException("saturated");
+            }
+        };
+        NotificationStreamService service = service(saturated);
+        service.subscribe(1L); // buffers the "connected" comment
+
+        for (int i = 0; i < BUFFER_SIZE; i++) {
+            service.publish(1L, new NotificationDto((long) i, "n" + i, false, LocalDateTime.now(), false));
+        }
+
+        assertEquals(1.0, meterRegistry.get("notification.stream.backlogged").counter().count());
+        assertEquals(0.0, meterRegistry.get("notification.stream.evicted").counter().count());
+        assertEquals(0.0, meterRegistry.get("notification.stream.connections").gauge().value());
+    }
+
+    private NotificationStreamService service(AsyncTaskExecutor executor) {
+        return new NotificationStreamService(executor, meterRegistry, 60000, BUFFER_SIZE, 5);
+    }
+
+    // What the scheduled retry sweep does, until every buffer is written out
+    private static void drainAll(NotificationStreamService service) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (service.pendingEvents() > 0 && System.currentTimeMillis() < deadline) {
+            service.retryRejectedDrains();
+            Thread.sleep(1);
+        }
+    }
+}
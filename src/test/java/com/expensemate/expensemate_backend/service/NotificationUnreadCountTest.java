@@ -0,0 +1,70 @@
+package com.expensemate.expensemate_backend.service;
+
+import com.expensemate.expensemate_backend.model.User;
+import com.expensemate.expensemate_backend.repository.NotificationRepository;
+import com.expensemate.expensemate_backend.repository.NotificationStateRepository;
+import com.expensemate.expensemate_backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Needs the MySQL database, like the other @SpringBootTest classes
+@SpringBootTest
+class NotificationUnreadCountTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationStateRepository notificationStateRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void createUserWithOneNotification() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(new User("unread-" + suffix, "unread-" + suffix + "@example.com", "x"));
+        notificationService.createNotification(user.getId(), "first");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        notificationRepository.deleteByUser(user);
+        notificationStateRepository.deleteById(user.getId());
+        userRepository.delete(user);
+    }
+
+    @Test
+    void counterIncludesNotificationCommittedWhileCounterWasNull() {
+        TransactionTemplate caller = new TransactionTemplate(transactionManager);
+        caller.executeWithoutResult(tx -> {
+            // First consistent read: fixes this transaction's snapshot while only "first" exists
+            notificationStateRepository.findById(user.getId());
+
+            // Committed by another transaction while no counter exists, so its +1 is a no-op
+            CompletableFuture.runAsync(() -> notificationService.createNotification(user.getId(), "second")).join();
+
+            notificationService.getUnreadCount(user.getId());
+        });
+
+        assertEquals(2L, notificationStateRepository.findById(user.getId()).orElseThrow().getUnreadCount());
+    }
+}
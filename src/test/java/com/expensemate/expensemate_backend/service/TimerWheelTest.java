@@ -0,0 +1,70 @@
+package com.expensemate.expensemate_backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+
+    // 1 ms ticks starting at 0, so millis and ticks are the same number
+    private final TimerWheel<String> wheel = new TimerWheel<>(1, 0);
+    private final List<String> expired = new ArrayList<>();
+
+    @Test
+    void itemExpiresAtItsDeadlineAndNotBefore() {
+        wheel.schedule("a", 10);
+
+        wheel.advance(9, expired::add);
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(10, expired::add);
+        assertEquals(List.of("a"), expired);
+    }
+
+    @Test
+    void deadlinesOnHigherLevelsCascadeDownAndExpireOnTime() {
+        // Level 1 (>= 64 ticks away) and level 2 (>= 64^2 ticks away)
+        assertExpiresExactlyAt(100);
+        assertExpiresExactlyAt(5000);
+    }
+
+    @Test
+    void deadlineBeyondTheWheelRangeIsRefiledUntilDue() {
+        // Past 64^3 ticks: parked in the farthest top-level slot and re-filed when it cascades
+        assertExpiresExactlyAt(300_000);
+    }
+
+    @Test
+    void deadlineInThePastExpiresOnTheNextTick() {
+        wheel.advance(50, expired::add);
+        wheel.schedule("late", 20);
+
+        wheel.advance(51, expired::add);
+        assertEquals(List.of("late"), expired);
+    }
+
+    @Test
+    void itemsAreHandedOverOnlyOnce() {
+        wheel.schedule("a", 5);
+        wheel.schedule("b", 70);
+
+        wheel.advance(1000, expired::add);
+        wheel.advance(2000, expired::add);
+        assertEquals(List.of("a", "b"), expired);
+    }
+
+    private void assertExpiresExactlyAt(long deadline) {
+        expired.clear();
+        wheel.schedule("item", deadline);
+
+        wheel.advance(deadline - 1, expired::add);
+        assertTrue(expired.isEmpty(), "expired before " + deadline);
+
+        wheel.advance(deadline, expired::add);
+        assertEquals(List.of("item"), expired);
+    }
+}
@@ -0,0 +1,61 @@
+package com.expensemate.expensemate_backend.service;
+
+import com.expensemate.expensemate_backend.repository.TokenRevocationRepository;
+import com.expensemate.expensemate_backend.security.JwtPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class TokenRevocationServiceTest {
+
+    private static final long USER_ID = 42L;
+
+    private final TokenRevocationService service =
+            new TokenRevocationService(mock(TokenRevocationRepository.class), 86400000L);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void tokenIssuedMillisecondsAfterRevocationIsNotRevoked() throws InterruptedException {
+        Instant before = Instant.now();
+        Thread.sleep(2);
+        service.revokeAllTokens(USER_ID);
+        Thread.sleep(2);
+        Instant after = Instant.now();
+
+        assertTrue(service.isRevoked(token(before)));
+        assertFalse(service.isRevoked(token(after)));
+    }
+
+    @Test
+    void revocationTakesEffectOnlyAfterCommit() throws InterruptedException {
+        Instant issued = Instant.now();
+        Thread.sleep(2);
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.revokeAllTokens(USER_ID);
+        assertFalse(service.isRevoked(token(issued)));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertTrue(service.isRevoked(token(issued)));
+    }
+
+    private static JwtPrincipal token(Instant issuedAt) {
+        return new JwtPrincipal(USER_ID, "user@example.com", "ROLE_USER", "user",
+                issuedAt, issuedAt.plusSeconds(3600));
+    }
+}